@@ -0,0 +1,93 @@
+package com.github.peckb1.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.peckb1.examples.auto.Fraggle;
+import com.github.peckb1.examples.base.FraggleList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes the polymorphic Fraggles, comparing the subtype lookup of the generated
+ * {@link Fraggle} model with the {@code @JsonTypeInfo} handling of the hand-written model.
+ * The two models hold different properties, so each reads a document of its own shape
+ * holding the same number of Fraggles.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FraggleBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public PayloadSize size;
+
+    private ObjectReader autoReader;
+    private ObjectReader baseReader;
+    private ObjectWriter writer;
+
+    private byte[] autoPayload;
+    private byte[] basePayload;
+    private List<Fraggle> autoFraggles;
+    private FraggleList baseFraggles;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Payloads.createObjectMapper();
+        this.autoReader = objectMapper.readerFor(new TypeReference<List<Fraggle>>() { });
+        this.baseReader = objectMapper.readerFor(FraggleList.class);
+        this.writer = objectMapper.writer();
+
+        this.autoPayload = Payloads.autoFraggles(this.size);
+        this.basePayload = Payloads.baseFraggles(this.size);
+        this.autoFraggles = this.autoReader.readValue(this.autoPayload);
+        this.baseFraggles = this.baseReader.readValue(this.basePayload);
+    }
+
+    @Benchmark
+    public List<Fraggle> deserializeAuto() throws IOException {
+        return this.autoReader.readValue(this.autoPayload);
+    }
+
+    @Benchmark
+    public FraggleList deserializeBase() throws IOException {
+        return this.baseReader.readValue(this.basePayload);
+    }
+
+    @Benchmark
+    public byte[] serializeAuto() throws IOException {
+        return this.writer.writeValueAsBytes(this.autoFraggles);
+    }
+
+    @Benchmark
+    public byte[] serializeBase() throws IOException {
+        return this.writer.writeValueAsBytes(this.baseFraggles);
+    }
+
+    @Benchmark
+    public List<Fraggle> roundTripAuto() throws IOException {
+        return this.autoReader.readValue(this.writer.writeValueAsBytes(this.autoFraggles));
+    }
+
+    @Benchmark
+    public FraggleList roundTripBase() throws IOException {
+        return this.baseReader.readValue(this.writer.writeValueAsBytes(this.baseFraggles));
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.peckb1.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.peckb1.examples.auto.Gorg;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes arrays of the recursive {@link Gorg}, comparing the generated model with
+ * the hand-written {@link com.github.peckb1.examples.base.Gorg} over the same JSON data.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GorgBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public PayloadSize size;
+
+    private ObjectReader autoReader;
+    private ObjectReader baseReader;
+    private ObjectWriter writer;
+
+    private byte[] payload;
+    private List<Gorg> autoGorgs;
+    private List<com.github.peckb1.examples.base.Gorg> baseGorgs;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Payloads.createObjectMapper();
+        this.autoReader = objectMapper.readerFor(new TypeReference<List<Gorg>>() { });
+        this.baseReader = objectMapper.readerFor(new TypeReference<List<com.github.peckb1.examples.base.Gorg>>() { });
+        this.writer = objectMapper.writer();
+
+        this.payload = Payloads.gorgs(this.size);
+        this.autoGorgs = this.autoReader.readValue(this.payload);
+        this.baseGorgs = this.baseReader.readValue(this.payload);
+    }
+
+    @Benchmark
+    public List<Gorg> deserializeAuto() throws IOException {
+        return this.autoReader.readValue(this.payload);
+    }
+
+    @Benchmark
+    public List<com.github.peckb1.examples.base.Gorg> deserializeBase() throws IOException {
+        return this.baseReader.readValue(this.payload);
+    }
+
+    @Benchmark
+    public byte[] serializeAuto() throws IOException {
+        return this.writer.writeValueAsBytes(this.autoGorgs);
+    }
+
+    @Benchmark
+    public byte[] serializeBase() throws IOException {
+        return this.writer.writeValueAsBytes(this.baseGorgs);
+    }
+
+    @Benchmark
+    public List<Gorg> roundTripAuto() throws IOException {
+        return this.autoReader.readValue(this.writer.writeValueAsBytes(this.autoGorgs));
+    }
+
+    @Benchmark
+    public List<com.github.peckb1.examples.base.Gorg> roundTripBase() throws IOException {
+        return this.baseReader.readValue(this.writer.writeValueAsBytes(this.baseGorgs));
+    }
+}
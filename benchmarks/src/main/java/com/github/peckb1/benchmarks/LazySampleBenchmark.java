@@ -0,0 +1,70 @@
+package com.github.peckb1.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.peckb1.examples.auto.LazySample;
+import com.github.peckb1.examples.auto.Sample;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads arrays of the example {@link Sample} document with the lazy {@link LazySample} model,
+ * against the same document read eagerly. A lazy value read from a {@code byte[]} is sliced
+ * straight out of the source, while one read from a stream has its tokens copied, so the
+ * same payload is also read through a stream to compare the two ways of capturing a value.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LazySampleBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public PayloadSize size;
+
+    private ObjectReader eagerReader;
+    private ObjectReader lazyReader;
+
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Payloads.createObjectMapper();
+        this.eagerReader = objectMapper.readerFor(new TypeReference<List<Sample>>() { });
+        this.lazyReader = objectMapper.readerFor(new TypeReference<List<LazySample>>() { });
+
+        this.payload = Payloads.samples(this.size);
+    }
+
+    @Benchmark
+    public List<Sample> deserializeEager() throws IOException {
+        return this.eagerReader.readValue(this.payload);
+    }
+
+    @Benchmark
+    public List<LazySample> deserializeLazySliced() throws IOException {
+        return this.lazyReader.readValue(this.payload);
+    }
+
+    @Benchmark
+    public List<LazySample> deserializeLazyCopied() throws IOException {
+        return this.lazyReader.readValue(new ByteArrayInputStream(this.payload));
+    }
+}
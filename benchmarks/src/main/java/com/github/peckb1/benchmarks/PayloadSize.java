@@ -0,0 +1,20 @@
+package com.github.peckb1.benchmarks;
+
+/**
+ * The number of top level values held by the JSON documents each benchmark works with.
+ */
+public enum PayloadSize {
+    SMALL(1),
+    MEDIUM(100),
+    LARGE(10_000);
+
+    private final int values;
+
+    PayloadSize(int values) {
+        this.values = values;
+    }
+
+    public int getValues() {
+        return this.values;
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.peckb1.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.peckb1.examples.auto.AutoJacksonSetup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Creates the {@link ObjectMapper} and JSON documents shared by the benchmarks.
+ * <p>
+ * The same mapper is used for both the hand-written {@code examples.base} model and the
+ * {@code examples.auto} model created by the processor, so the only difference measured
+ * is the code reading and writing each model.
+ */
+final class Payloads {
+
+    private static final int GORG_GENERATIONS = 3;
+
+    private Payloads() {
+    }
+
+    static ObjectMapper createObjectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new Jdk8Module());
+        objectMapper.registerModule(new JavaTimeModule());
+        AutoJacksonSetup.configureObjectMapper(objectMapper);
+        return objectMapper;
+    }
+
+    /**
+     * @return An array of Gorgs, each with a child and grandchild, readable by both models
+     */
+    static byte[] gorgs(PayloadSize size) {
+        return array(size, i -> gorg(i, GORG_GENERATIONS));
+    }
+
+    /**
+     * @return A {@code FraggleList} of the hand-written model
+     */
+    static byte[] baseFraggles(PayloadSize size) {
+        String fraggles = IntStream.range(0, size.getValues())
+                .mapToObj(i -> i % 2 == 0
+                        ? "{\"name\":\"BOOBER\",\"hairColour\":\"blue\",\"hat\":true,\"job\":{\"occupation\":\"Actor\",\"daysWorked\":" + i + "}}"
+                        : "{\"name\":\"WEMBLEY\",\"hairColour\":\"yellow\",\"hat\":false}")
+                .collect(Collectors.joining(",", "{\"fraggles\":[", "]}"));
+        return fraggles.getBytes(UTF_8);
+    }
+
+    /**
+     * @return An array of Fraggles of the generated model
+     */
+    static byte[] autoFraggles(PayloadSize size) {
+        return array(size, i -> i % 2 == 0
+                ? "{\"name\":\"BOOBER\",\"age\":11,\"occupation\":\"clothes washer\",\"superstitions\":" + i + "," +
+                "\"muppeteer\":{\"name\":\"Dave Goelz\"}}"
+                : "{\"name\":\"WEMBLEY\",\"age\":9,\"occupation\":\"fire truck siren\",\"fires\":" + i + "," +
+                "\"muppeteer\":{\"name\":\"Steve Whitmire\"}}");
+    }
+
+    /**
+     * @return An array of copies of the example {@code Sample} document
+     */
+    static byte[] samples(PayloadSize size) {
+        String sample = resource("/sample.json");
+        return array(size, i -> sample);
+    }
+
+    private static byte[] array(PayloadSize size, IntFunction<String> element) {
+        return IntStream.range(0, size.getValues())
+                .mapToObj(element)
+                .collect(Collectors.joining(",", "[", "]"))
+                .getBytes(UTF_8);
+    }
+
+    private static String gorg(int i, int generations) {
+        String child = generations > 1 ? ",\"child\":" + gorg(i, generations - 1) : "";
+        return "{\"age\":" + (generations * 20) + ",\"name\":\"Gorg " + i + "\"" + child + "}";
+    }
+
+    private static String resource(String name) {
+        try (InputStream input = Payloads.class.getResourceAsStream(name)) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int read = input.read(buffer); read != -1; read = input.read(buffer)) {
+                bytes.write(buffer, 0, read);
+            }
+            return new String(bytes.toByteArray(), UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
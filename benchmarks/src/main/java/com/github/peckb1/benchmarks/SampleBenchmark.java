@@ -0,0 +1,70 @@
+package com.github.peckb1.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.peckb1.examples.auto.Sample;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes arrays of the example {@link Sample} document, which covers every kind
+ * of property the processor handles. There is no hand-written counterpart of the model, so
+ * these act as a baseline for changes to the generated code.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SampleBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public PayloadSize size;
+
+    private ObjectReader reader;
+    private ObjectWriter writer;
+
+    private byte[] payload;
+    private List<Sample> samples;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Payloads.createObjectMapper();
+        this.reader = objectMapper.readerFor(new TypeReference<List<Sample>>() { });
+        this.writer = objectMapper.writer();
+
+        this.payload = Payloads.samples(this.size);
+        this.samples = this.reader.readValue(this.payload);
+    }
+
+    @Benchmark
+    public List<Sample> deserialize() throws IOException {
+        return this.reader.readValue(this.payload);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return this.writer.writeValueAsBytes(this.samples);
+    }
+
+    @Benchmark
+    public List<Sample> roundTrip() throws IOException {
+        return this.reader.readValue(this.writer.writeValueAsBytes(this.samples));
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.peckb1.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.peckb1.examples.auto.Fraggle;
+import com.github.peckb1.examples.auto.Gorg;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes and encodes the generated model through a single {@link ObjectMapper} shared by
+ * every benchmark thread, the way a service configured through {@code AutoJacksonSetup}
+ * would. Run through the {@link ScalingRunner} to sweep the number of threads.
+ * <p>
+ * The {@code Mapper} benchmarks go through the mapper for every call, which looks up the
+ * type and root deserializer or serializer each time, while the {@code Reader} benchmark
+ * reuses an {@link ObjectReader} holding on to its deserializer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScalingBenchmark {
+
+    private static final TypeReference<List<Gorg>> GORG_LIST = new TypeReference<List<Gorg>>() { };
+    private static final TypeReference<List<Fraggle>> FRAGGLE_LIST = new TypeReference<List<Fraggle>>() { };
+
+    @Param({"SMALL", "MEDIUM"})
+    public PayloadSize size;
+
+    private ObjectMapper objectMapper;
+    private ObjectReader gorgReader;
+
+    private byte[] gorgPayload;
+    private byte[] fragglePayload;
+    private List<Gorg> gorgs;
+    private List<Fraggle> fraggles;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.objectMapper = Payloads.createObjectMapper();
+        this.gorgReader = this.objectMapper.readerFor(GORG_LIST);
+
+        this.gorgPayload = Payloads.gorgs(this.size);
+        this.fragglePayload = Payloads.autoFraggles(this.size);
+        this.gorgs = this.objectMapper.readValue(this.gorgPayload, GORG_LIST);
+        this.fraggles = this.objectMapper.readValue(this.fragglePayload, FRAGGLE_LIST);
+    }
+
+    @Benchmark
+    public List<Gorg> decodeGorgsWithMapper() throws IOException {
+        return this.objectMapper.readValue(this.gorgPayload, GORG_LIST);
+    }
+
+    @Benchmark
+    public List<Gorg> decodeGorgsWithReader() throws IOException {
+        return this.gorgReader.readValue(this.gorgPayload);
+    }
+
+    @Benchmark
+    public List<Fraggle> decodeFragglesWithMapper() throws IOException {
+        return this.objectMapper.readValue(this.fragglePayload, FRAGGLE_LIST);
+    }
+
+    @Benchmark
+    public byte[] encodeGorgsWithMapper() throws IOException {
+        return this.objectMapper.writeValueAsBytes(this.gorgs);
+    }
+
+    @Benchmark
+    public byte[] encodeFragglesWithMapper() throws IOException {
+        return this.objectMapper.writeValueAsBytes(this.fraggles);
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.peckb1.benchmarks;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.StackProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the {@link ScalingBenchmark} from one thread up to a maximum number of threads,
+ * doubling each time, then reports how close to linear the throughput scaled.
+ * <p>
+ * Each run samples the threads of the benchmark with the {@link StackProfiler}. Any run scaling
+ * below {@link #EFFICIENCY_THRESHOLD}, or with more than {@link #CONTENDED_THRESHOLD} percent of
+ * the samples blocked on a monitor or parked on a lock, is flagged along with the hottest frames
+ * seen, which point at the shared caches the threads contend on. Timed waits are left out, as
+ * those are the JMH control thread waiting for the iteration to end.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.github.peckb1.benchmarks.ScalingRunner [max threads] [benchmark regex]
+ * </pre>
+ */
+public final class ScalingRunner {
+
+    private static final double EFFICIENCY_THRESHOLD = 0.8;
+    private static final double CONTENDED_THRESHOLD = 5.0;
+    private static final Pattern THREAD_STATE = Pattern.compile("([\\d.]+)%\\s+(BLOCKED|WAITING)\\s");
+
+    private ScalingRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        String include = args.length > 1 ? args[1] : ScalingBenchmark.class.getSimpleName();
+
+        TreeSet<Integer> threadCounts = new TreeSet<>();
+        for (int threads = 1; threads < maxThreads; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(maxThreads);
+
+        // benchmark and parameters -> thread count -> result
+        Map<String, Map<Integer, RunResult>> results = new LinkedHashMap<>();
+        for (int threads : threadCounts) {
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .addProfiler(StackProfiler.class)
+                    .build();
+            for (RunResult result : new Runner(options).run()) {
+                results.computeIfAbsent(label(result.getParams()), label -> new LinkedHashMap<>()).put(threads, result);
+            }
+        }
+
+        List<String> flagged = new ArrayList<>();
+        System.out.println();
+        System.out.printf("%-60s %8s %14s %9s %11s %10s%n", "Benchmark", "Threads", "ops/ms", "Speedup", "Efficiency", "Contended");
+        results.forEach((label, byThreads) -> {
+            double single = byThreads.get(threadCounts.first()).getPrimaryResult().getScore();
+            byThreads.forEach((threads, result) -> {
+                double score = result.getPrimaryResult().getScore();
+                double speedup = score / single;
+                double efficiency = speedup / threads;
+                double contended = contendedPercent(result);
+                boolean flag = efficiency < EFFICIENCY_THRESHOLD || contended > CONTENDED_THRESHOLD;
+                System.out.printf("%-60s %8d %14.3f %8.2fx %10.0f%% %9.1f%%%s%n",
+                        label, threads, score, speedup, efficiency * 100, contended, flag ? "  <-- check" : "");
+                if (flag && threads > 1) {
+                    flagged.add(label + " with " + threads + " threads");
+                    stackResult(result).ifPresent(stack -> flagged.add(stack.extendedInfo()));
+                }
+            });
+        });
+
+        if (!flagged.isEmpty()) {
+            System.out.println();
+            System.out.println("Runs scaling below " + (int) (EFFICIENCY_THRESHOLD * 100) + "% efficiency, or with contended threads:");
+            flagged.forEach(System.out::println);
+        }
+    }
+
+    private static String label(BenchmarkParams params) {
+        String benchmark = params.getBenchmark().substring(params.getBenchmark().lastIndexOf('.') + 1);
+        return benchmark + params.getParamsKeys().stream()
+                .map(key -> key + "=" + params.getParam(key))
+                .reduce("", (parameters, parameter) -> parameters + " " + parameter);
+    }
+
+    /**
+     * @return The percentage of samples the stack profiler saw the benchmark threads blocked or waiting
+     */
+    private static double contendedPercent(RunResult result) {
+        return stackResult(result)
+                .map(stack -> {
+                    double percent = 0;
+                    Matcher matcher = THREAD_STATE.matcher(stack.extendedInfo());
+                    while (matcher.find()) {
+                        percent += Double.parseDouble(matcher.group(1));
+                    }
+                    return percent;
+                })
+                .orElse(0.0);
+    }
+
+    private static Optional<Result> stackResult(RunResult result) {
+        return result.getSecondaryResults().entrySet().stream()
+                .filter(entry -> entry.getKey().endsWith("stack"))
+                .map(Map.Entry::getValue)
+                .findFirst();
+    }
+}
@@ -0,0 +1,14 @@
+package com.github.peckb1.examples.auto;
+
+import com.github.peckb1.examples.auto.fraggles.Gobo;
+import com.github.peckb1.processor.AutoJackson;
+
+import java.util.List;
+
+@AutoJackson
+public interface Expedition {
+
+    Gobo<Long> getLeader();
+    List<Gorg> getGorgsAvoided();
+
+}
@@ -0,0 +1,8 @@
+package com.github.peckb1.examples.auto;
+
+import com.github.peckb1.processor.AutoJackson;
+
+@AutoJackson(lazy = true)
+public interface LazySample extends Sample {
+
+}
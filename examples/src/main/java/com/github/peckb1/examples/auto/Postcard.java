@@ -0,0 +1,15 @@
+package com.github.peckb1.examples.auto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.github.peckb1.processor.AutoJackson;
+
+import java.util.Date;
+
+@AutoJackson
+public interface Postcard {
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd.MM.yyyy", timezone = "UTC") Date getSent();
+    @JsonFormat(shape = JsonFormat.Shape.NUMBER) Muppet getFrom();
+    String getMessage();
+
+}
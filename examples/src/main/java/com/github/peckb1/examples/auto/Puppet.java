@@ -0,0 +1,30 @@
+package com.github.peckb1.examples.auto;
+
+import com.github.peckb1.examples.auto.Puppet.PuppetKind;
+import com.github.peckb1.examples.auto.puppets.HandPuppet;
+import com.github.peckb1.examples.auto.puppets.RodPuppet;
+import com.github.peckb1.processor.AutoJackson;
+import com.github.peckb1.processor.AutoJacksonTypeClass;
+
+@AutoJackson(type = @AutoJackson.Type(PuppetKind.class), streaming = false)
+public interface Puppet {
+
+    PuppetKind getKind();
+    Muppet getCharacter();
+
+    enum PuppetKind {
+        HAND(HandPuppet.class),
+        ROD(RodPuppet.class);
+
+        private final Class<? extends Puppet> puppetClass;
+
+        PuppetKind(Class<? extends Puppet> puppetClass) {
+            this.puppetClass = puppetClass;
+        }
+
+        @AutoJacksonTypeClass
+        public Class<? extends Puppet> getPuppetClass() {
+            return puppetClass;
+        }
+    }
+}
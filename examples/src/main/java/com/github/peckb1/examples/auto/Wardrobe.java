@@ -0,0 +1,14 @@
+package com.github.peckb1.examples.auto;
+
+import com.github.peckb1.examples.auto.doozers.Hat;
+import com.github.peckb1.processor.AutoJackson;
+
+import java.util.Optional;
+
+@AutoJackson
+public interface Wardrobe {
+
+    Hat getHardHat();
+    Optional<com.github.peckb1.examples.auto.fraggles.Hat> getFloppyHat();
+
+}
@@ -0,0 +1,8 @@
+package com.github.peckb1.examples.auto.doozers;
+
+import com.github.peckb1.processor.AutoJackson;
+
+@AutoJackson(compact = true)
+public interface CompactDoozer extends Doozer {
+
+}
@@ -0,0 +1,20 @@
+package com.github.peckb1.examples.auto.doozers;
+
+import com.github.peckb1.processor.AutoJackson;
+import com.github.peckb1.processor.Named;
+
+import java.util.Optional;
+
+@AutoJackson
+public interface Doozer {
+
+    String getName();
+    Integer getAge();
+    @Named("building") Boolean isBuilding();
+    @Named("hardHat") boolean hasHardHat();
+    Long getTowersBuilt();
+    Double getHeight();
+    Optional<String> getNickname();
+    Optional<Doozer> getApprentice();
+
+}
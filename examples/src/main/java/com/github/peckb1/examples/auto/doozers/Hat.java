@@ -0,0 +1,10 @@
+package com.github.peckb1.examples.auto.doozers;
+
+import com.github.peckb1.processor.AutoJackson;
+
+@AutoJackson
+public interface Hat {
+
+    String getColor();
+
+}
@@ -0,0 +1,10 @@
+package com.github.peckb1.examples.auto.fraggles;
+
+import com.github.peckb1.processor.AutoJackson;
+
+@AutoJackson
+public interface Hat {
+
+    String getStyle();
+
+}
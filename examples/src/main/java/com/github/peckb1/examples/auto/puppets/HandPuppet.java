@@ -0,0 +1,11 @@
+package com.github.peckb1.examples.auto.puppets;
+
+import com.github.peckb1.examples.auto.Puppet;
+import com.github.peckb1.processor.AutoJackson;
+
+@AutoJackson
+public interface HandPuppet extends Puppet {
+
+    boolean getLiveHands();
+
+}
@@ -1,5 +1,6 @@
 package com.github.peckb1.examples.base;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.List;
@@ -10,6 +11,7 @@ public class FraggleList {
     @JsonProperty(value = FRAGGLES_KEY, required = true)
     private final List<Fraggle> fraggles;
     
+    @JsonCreator
     public FraggleList(@JsonProperty(value = FRAGGLES_KEY, required = true) List<Fraggle> fraggles) {
         this.fraggles = fraggles;
     }
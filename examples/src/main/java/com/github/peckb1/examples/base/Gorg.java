@@ -0,0 +1,42 @@
+package com.github.peckb1.examples.base;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Optional;
+
+public class Gorg {
+    private static final String AGE_KEY = "age";
+    private static final String NAME_KEY = "name";
+    private static final String CHILD_KEY = "child";
+
+    @JsonProperty(value = AGE_KEY, required = true)
+    private final Integer age;
+
+    @JsonProperty(value = NAME_KEY, required = true)
+    private final String name;
+
+    @JsonProperty(value = CHILD_KEY)
+    private final Optional<Gorg> child;
+
+    @JsonCreator
+    public Gorg(@JsonProperty(value = AGE_KEY, required = true) Integer age,
+                @JsonProperty(value = NAME_KEY, required = true) String name,
+                @JsonProperty(value = CHILD_KEY) Optional<Gorg> child) {
+        this.age = age;
+        this.name = name;
+        this.child = child;
+    }
+
+    public Integer getAge() {
+        return this.age;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public Optional<Gorg> getChild() {
+        return this.child;
+    }
+}
@@ -1,5 +1,6 @@
 package com.github.peckb1.examples.base;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 public class Job {
@@ -12,6 +13,7 @@ public class Job {
     @JsonProperty(value = DAYS_WORKED_KEY, required = true)
     private final int daysWorked;
 
+    @JsonCreator
     public Job(@JsonProperty(value = OCCUPATION_KEY, required = true) String occupation,
                @JsonProperty(value = DAYS_WORKED_KEY, required = true) int daysWorked) {
         this.occupation = occupation;
@@ -1,5 +1,6 @@
 package com.github.peckb1.examples.base.fraggles;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.github.peckb1.examples.base.Fraggle;
 import com.github.peckb1.examples.base.Job;
@@ -7,6 +8,7 @@ import com.github.peckb1.examples.base.Job;
 import java.util.Optional;
 
 public class Wembley extends Fraggle {
+    @JsonCreator
     public Wembley(@JsonProperty(value = HAIR_COLOUR_KEY, required = true) String hairColour,
                    @JsonProperty(value = HAT_KEY, required = true) Boolean wearsHats,
                    @JsonProperty(value = JOB_KEY) Optional<Job> job) {
@@ -0,0 +1,91 @@
+package com.github.peckb1.examples.auto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.github.peckb1.examples.auto.doozers.CompactDoozer;
+import com.github.peckb1.examples.auto.doozers.Doozer;
+import org.junit.Before;
+import org.junit.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestCompactLayout {
+
+    private static final String DOOZER_JSON = "{ " +
+            "\"name\" : \"Cotterpin\", " +
+            "\"age\" : 12, " +
+            "\"building\" : true, " +
+            "\"hardHat\" : true, " +
+            "\"towersBuilt\" : 4096, " +
+            "\"height\" : 0.75, " +
+            "\"nickname\" : \"Cotter\" " +
+            "}";
+
+    private ObjectMapper objectMapper;
+
+    @Before
+    public void setUp() throws Exception {
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new Jdk8Module());
+        AutoJacksonSetup.configureObjectMapper(this.objectMapper);
+    }
+
+    @Test
+    public void testCompactAccessors() throws IOException {
+        Doozer regular = this.objectMapper.readValue(DOOZER_JSON, Doozer.class);
+        CompactDoozer compact = this.objectMapper.readValue(DOOZER_JSON, CompactDoozer.class);
+        checkSameProperties(regular, compact);
+
+        String missingValues = "{ \"name\" : \"Wingnut\", \"age\" : null, \"building\" : null, \"hardHat\" : false, " +
+                "\"towersBuilt\" : null, \"height\" : null }";
+        CompactDoozer missing = this.objectMapper.readValue(missingValues, CompactDoozer.class);
+        assertNull(missing.getAge());
+        assertNull(missing.isBuilding());
+        assertFalse(missing.hasHardHat());
+        assertNull(missing.getTowersBuilt());
+        assertNull(missing.getHeight());
+        assertEquals(Optional.empty(), missing.getNickname());
+        assertEquals(Optional.empty(), missing.getApprentice());
+
+        // and writing the compact form back out gives the same values again
+        String jsonData = this.objectMapper.writeValueAsString(compact);
+        checkSameProperties(regular, this.objectMapper.readValue(jsonData, CompactDoozer.class));
+    }
+
+    @Test
+    public void testCompactHeapFootprint() throws IOException {
+        long regularBytes = bytesPerInstance(Doozer.class);
+        long compactBytes = bytesPerInstance(CompactDoozer.class);
+        String sizes = String.format("regular: %d bytes, compact: %d bytes", regularBytes, compactBytes);
+
+        assertTrue("expected the compact layout to be smaller, " + sizes, compactBytes < regularBytes);
+    }
+
+    private void checkSameProperties(Doozer expected, Doozer actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getAge(), actual.getAge());
+        assertEquals(expected.isBuilding(), actual.isBuilding());
+        assertEquals(expected.hasHardHat(), actual.hasHardHat());
+        assertEquals(expected.getTowersBuilt(), actual.getTowersBuilt());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        assertEquals(expected.getNickname(), actual.getNickname());
+        assertEquals(expected.getApprentice(), actual.getApprentice());
+    }
+
+    /**
+     * Measures the heap retained by an instance read, including anything the
+     * instance holds on to such as boxed values and {@link Optional}s.
+     */
+    private long bytesPerInstance(Class<? extends Doozer> doozerClass) throws IOException {
+        Doozer doozer = this.objectMapper.readValue(DOOZER_JSON, doozerClass);
+        assertEquals("Cotterpin", doozer.getName());
+        return GraphLayout.parseInstance(doozer).totalSize();
+    }
+}
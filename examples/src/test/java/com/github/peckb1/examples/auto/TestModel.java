@@ -1,8 +1,24 @@
 package com.github.peckb1.examples.auto;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.InjectableValues;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidTypeIdException;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.github.peckb1.examples.auto.fraggles.Boober;
@@ -12,23 +28,52 @@ import com.github.peckb1.examples.auto.muppeteers.DaveGoelz;
 import com.github.peckb1.examples.auto.muppeteers.JerryNelson;
 import com.github.peckb1.examples.auto.muppeteers.KathrynMullen;
 import com.github.peckb1.examples.auto.muppeteers.SteveWhitmire;
+import com.github.peckb1.examples.auto.puppets.HandPuppet;
+import com.github.peckb1.examples.auto.puppets.RodPuppet;
+import com.github.peckb1.processor.JsonValueFeeder;
+import com.github.peckb1.processor.WarmUpDocuments;
+import com.github.peckb1.processor.WarmUpReport;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
-import peckb1.autojackson.AutoJacksonSetup;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 import com.github.peckb1.examples.auto.Fraggle.FraggleName;
+import com.github.peckb1.examples.auto.Puppet.PuppetKind;
 import com.github.peckb1.examples.auto.fraggles.Wembley;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.Date;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class TestModel {
@@ -58,6 +103,656 @@ public class TestModel {
         checkSample(sampleAgain);
     }
 
+    @Test
+    public void testLazyModel() throws IOException {
+        File simpleModelFile = new File("resources/auto_model.json");
+        LazySample sample = this.objectMapper.readValue(simpleModelFile, LazySample.class);
+
+        checkSample(sample);
+
+        String jsonData = this.objectMapper.writeValueAsString(sample);
+        LazySample sampleAgain = this.objectMapper.readValue(jsonData, LazySample.class);
+
+        checkSample(sampleAgain);
+    }
+
+    @Test
+    public void testLazyValuesDecodedOnce() throws Exception {
+        AtomicInteger decodes = new AtomicInteger();
+        ObjectMapper countingMapper = new ObjectMapper();
+        countingMapper.registerModule(new JavaTimeModule());
+        countingMapper.registerModule(new Jdk8Module());
+        AutoJacksonSetup.configureObjectMapper(countingMapper);
+        countingMapper.registerModule(new SimpleModule().addDeserializer(Gorg.class, new CountingGorgDeserializer(decodes)));
+
+        LazySample sample = countingMapper.readValue(new File("resources/auto_model.json"), LazySample.class);
+        assertEquals(0, decodes.get());
+
+        // threads racing for the first access all get the one value decoded
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Gorg>> gorgs = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                gorgs.add(executor.submit(() -> {
+                    start.await();
+                    return sample.getGorg();
+                }));
+            }
+            start.countDown();
+            for (Future<Gorg> gorg : gorgs) {
+                assertSame(gorgs.get(0).get(), gorg.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, decodes.get());
+
+        assertSame(sample.getGorg(), sample.getGorg());
+        checkJunior(sample.getGorg());
+        assertEquals(1, decodes.get());
+    }
+
+    @Test
+    public void testLazyValuesUseReaderConfiguration() throws IOException {
+        ObjectNode tree = (ObjectNode) this.objectMapper.readTree(new File("resources/auto_model.json"));
+        tree.set("gorgList", tree.get("gorg"));
+
+        // the single gorg is only accepted as a list through the reader, and is decoded after the read
+        LazySample sample = this.objectMapper.readerFor(LazySample.class)
+                .with(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
+                .readValue(tree.toString());
+        assertEquals(1, sample.getGorgList().size());
+        checkJunior(sample.getGorgList().get(0));
+    }
+
+    @Test
+    public void testLazyValuesSlicedFromBytes() throws IOException {
+        byte[] modelBytes = Files.readAllBytes(Paths.get("resources/auto_model.json"));
+        byte[] padded = new byte[modelBytes.length + 16];
+        Arrays.fill(padded, (byte) '#');
+        System.arraycopy(modelBytes, 0, padded, 7, modelBytes.length);
+
+        // the captured values are copied out of the middle of the larger array
+        LazySample sample = this.objectMapper.readerFor(LazySample.class).readValue(padded, 7, modelBytes.length);
+        Arrays.fill(padded, (byte) '#');
+        checkSample(sample);
+    }
+
+    @Test
+    public void testLazyValuesUseReaderInjectableValues() throws IOException {
+        AtomicInteger decodes = new AtomicInteger();
+        ObjectMapper injectingMapper = new ObjectMapper();
+        injectingMapper.registerModule(new JavaTimeModule());
+        injectingMapper.registerModule(new Jdk8Module());
+        AutoJacksonSetup.configureObjectMapper(injectingMapper);
+        injectingMapper.registerModule(new SimpleModule().addDeserializer(Gorg.class, new InjectedGorgDeserializer()));
+
+        LazySample sample = injectingMapper.readerFor(LazySample.class)
+                .with(new InjectableValues.Std().addValue(InjectedGorgDeserializer.DECODES, decodes))
+                .readValue(Files.readAllBytes(Paths.get("resources/auto_model.json")));
+        assertEquals(0, decodes.get());
+        checkJunior(sample.getGorg());
+        assertEquals(1, decodes.get());
+    }
+
+    @Test
+    public void testByteReaders() throws IOException {
+        Sample_AutoJacksonReader sampleReader = new Sample_AutoJacksonReader(this.objectMapper);
+        byte[] modelBytes = Files.readAllBytes(Paths.get("resources/auto_model.json"));
+        checkSample(sampleReader.read(modelBytes));
+
+        // a slice in the middle of a larger array, a heap buffer, and a direct buffer
+        Gorg_AutoJacksonReader gorgReader = new Gorg_AutoJacksonReader(this.objectMapper);
+        byte[] junior = this.objectMapper.writeValueAsBytes(this.objectMapper.readValue(
+                "{ \"name\" : \"Junior\", \"age\" : 15 }", Gorg.class));
+        byte[] padded = new byte[junior.length + 8];
+        System.arraycopy(junior, 0, padded, 4, junior.length);
+        checkJunior(gorgReader.read(padded, 4, junior.length));
+
+        ByteBuffer heapBuffer = ByteBuffer.wrap(padded, 4, junior.length);
+        checkJunior(gorgReader.read(heapBuffer));
+        assertEquals(4, heapBuffer.position());
+
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(junior.length);
+        directBuffer.put(junior).flip();
+        checkJunior(gorgReader.read(directBuffer));
+        assertEquals(junior.length, directBuffer.remaining());
+    }
+
+    @Test
+    public void testValueIterators() throws IOException {
+        Gorg_AutoJacksonReader gorgReader = new Gorg_AutoJacksonReader(this.objectMapper);
+        String king = "{ \"name\" : \"King\", \"age\" : 42, \"child\" : { \"name\" : \"Junior\", \"age\" : 15 } }";
+        String queen = "{ \"name\" : \"Queen\", \"age\" : 38, \"child\" : { \"name\" : \"Junior\", \"age\" : 15 } }";
+
+        try (MappingIterator<Gorg> gorgs = gorgReader.readValues(new ByteArrayInputStream(("[" + king + ", " + queen + "]").getBytes(UTF_8)))) {
+            checkKing(gorgs.next());
+            checkQueen(gorgs.next());
+            assertFalse(gorgs.hasNext());
+        }
+
+        Path newlineDelimited = Files.createTempFile("gorgs", ".ndjson");
+        try {
+            Files.write(newlineDelimited, (king + "\n" + queen + "\n").getBytes(UTF_8));
+            try (Stream<Gorg> gorgs = gorgReader.stream(newlineDelimited)) {
+                List<Gorg> gorgList = gorgs.collect(Collectors.toList());
+                assertEquals(2, gorgList.size());
+                checkKing(gorgList.get(0));
+                checkQueen(gorgList.get(1));
+            }
+        } finally {
+            Files.delete(newlineDelimited);
+        }
+    }
+
+    @Test
+    public void testFeeder() throws IOException {
+        Gorg_AutoJacksonReader gorgReader = new Gorg_AutoJacksonReader(this.objectMapper);
+        String king = "{ \"name\" : \"King\", \"age\" : 42, \"child\" : { \"name\" : \"Ju}nior\\\"\", \"age\" : 15 } }";
+        String queen = "{ \"name\" : \"Queen\", \"age\" : 38, \"child\" : { \"name\" : \"Junior\", \"age\" : 15 } }";
+        byte[] input = (king + "\n" + queen + "\n").getBytes(UTF_8);
+
+        // fed a few bytes at a time, with each value handed over once its last byte arrives
+        List<Gorg> gorgs = new ArrayList<>();
+        JsonValueFeeder<Gorg> feeder = gorgReader.feeder(gorgs::add);
+        int kingEnd = king.length();
+        int queenEnd = kingEnd + 1 + queen.length();
+        for (int offset = 0; offset < input.length; offset += 7) {
+            int fed = Math.min(offset + 7, input.length);
+            feeder.feedInput(input, offset, fed - offset);
+            assertEquals((fed >= kingEnd ? 1 : 0) + (fed >= queenEnd ? 1 : 0), gorgs.size());
+        }
+        feeder.endOfInput();
+
+        assertEquals(2, gorgs.size());
+        assertEquals("King", gorgs.get(0).getName());
+        assertEquals("Ju}nior\"", gorgs.get(0).getChild().get().getName());
+        checkQueen(gorgs.get(1));
+
+        // any value can be read, with a number cut off by the end of a feed only whole once more arrives
+        List<Integer> ages = new ArrayList<>();
+        JsonValueFeeder<Integer> ageFeeder = new JsonValueFeeder<>(this.objectMapper.readerFor(Integer.class), ages::add);
+        ageFeeder.feedInput("42 1".getBytes(UTF_8));
+        assertEquals(Collections.singletonList(42), ages);
+        ageFeeder.feedInput("5".getBytes(UTF_8));
+        ageFeeder.endOfInput();
+        assertEquals(Arrays.asList(42, 15), ages);
+    }
+
+    @Test
+    public void testFeederAfterFailedValue() throws IOException {
+        Gorg_AutoJacksonReader gorgReader = new Gorg_AutoJacksonReader(this.objectMapper);
+        String king = "{ \"name\" : \"King\", \"age\" : 42, \"child\" : { \"name\" : \"Junior\", \"age\" : 15 } }";
+        String ageless = "{ \"name\" : \"Ageless\" }";
+        String queen = "{ \"name\" : \"Queen\", \"age\" : 38, \"child\" : { \"name\" : \"Junior\", \"age\" : 15 } }";
+        byte[] input = (king + "\n" + ageless + "\n" + queen + "\n").getBytes(UTF_8);
+
+        // the value missing its age fails, without losing the values either side of it
+        List<Gorg> gorgs = new ArrayList<>();
+        JsonValueFeeder<Gorg> feeder = gorgReader.feeder(gorgs::add);
+        int failures = 0;
+        for (int offset = 0; offset < input.length; offset += 7) {
+            try {
+                feeder.feedInput(input, offset, Math.min(7, input.length - offset));
+            } catch (JsonMappingException e) {
+                failures++;
+            }
+        }
+        feeder.endOfInput();
+
+        assertEquals(1, failures);
+        assertEquals(2, gorgs.size());
+        checkKing(gorgs.get(0));
+        checkQueen(gorgs.get(1));
+
+        // a value other than an object is only a value which can not be decoded
+        JsonValueFeeder<Gorg> stringFeeder = gorgReader.feeder(gorgs::add);
+        try {
+            stringFeeder.feedInput(("\"King\"\n" + queen + "\n").getBytes(UTF_8));
+            Assert.fail("a string is not a gorg");
+        } catch (JsonMappingException expected) {
+            assertEquals(3, gorgs.size());
+            checkQueen(gorgs.get(2));
+        }
+
+        // while bytes which are not JSON mean the input can not be followed any further
+        JsonValueFeeder<Gorg> brokenFeeder = gorgReader.feeder(gorgs::add);
+        try {
+            brokenFeeder.feedInput("{ \"name\" : ]".getBytes(UTF_8));
+            Assert.fail("the input is not JSON");
+        } catch (IOException expected) {
+            // the feeder has failed for good
+        }
+        try {
+            brokenFeeder.feedInput(queen.getBytes(UTF_8));
+            Assert.fail("the feeder should have failed for good");
+        } catch (IllegalStateException expected) {
+            assertEquals(3, gorgs.size());
+        }
+    }
+
+    @Test
+    public void testPublisher() {
+        Gorg_AutoJacksonReader gorgReader = new Gorg_AutoJacksonReader(this.objectMapper);
+        String king = "{ \"name\" : \"King\", \"age\" : 42, \"child\" : { \"name\" : \"Junior\", \"age\" : 15 } }";
+        String queen = "{ \"name\" : \"Queen\", \"age\" : 38, \"child\" : { \"name\" : \"Junior\", \"age\" : 15 } }";
+        byte[] input = (king + "\n" + queen + "\n").getBytes(UTF_8);
+
+        // publishes the input a few bytes at a time, only as the buffers are requested
+        AtomicLong outstanding = new AtomicLong();
+        Publisher<ByteBuffer> bytes = subscriber -> subscriber.onSubscribe(new Subscription() {
+            private int offset = 0;
+
+            @Override
+            public void request(long n) {
+                outstanding.addAndGet(n);
+                for (; n > 0 && this.offset < input.length; n--, this.offset += 7) {
+                    assertTrue(outstanding.getAndDecrement() <= 1);
+                    subscriber.onNext(ByteBuffer.wrap(input, this.offset, Math.min(7, input.length - this.offset)));
+                }
+                if (this.offset >= input.length) {
+                    subscriber.onComplete();
+                }
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+
+        List<Gorg> gorgs = new ArrayList<>();
+        AtomicBoolean completed = new AtomicBoolean();
+        gorgReader.decode(bytes).subscribe(new Subscriber<Gorg>() {
+            private Subscription subscription;
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(Gorg gorg) {
+                gorgs.add(gorg);
+                this.subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                throw new AssertionError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.set(true);
+            }
+        });
+
+        assertTrue(completed.get());
+        assertEquals(2, gorgs.size());
+        checkKing(gorgs.get(0));
+        checkQueen(gorgs.get(1));
+    }
+
+    @Test
+    public void testPublisherDeliversValuesBeforeError() {
+        Gorg_AutoJacksonReader gorgReader = new Gorg_AutoJacksonReader(this.objectMapper);
+        String king = "{ \"name\" : \"King\", \"age\" : 42, \"child\" : { \"name\" : \"Junior\", \"age\" : 15 } }";
+        String queen = "{ \"name\" : \"Queen\", \"age\" : 38, \"child\" : { \"name\" : \"Junior\", \"age\" : 15 } }";
+        ByteBuffer input = ByteBuffer.wrap((king + "\n\"King\"\n" + queen + "\n").getBytes(UTF_8));
+
+        // the one buffer holds a value which can not be decoded between two which can
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Publisher<ByteBuffer> bytes = subscriber -> subscriber.onSubscribe(new Subscription() {
+            @Override
+            public void request(long n) {
+                subscriber.onNext(input);
+            }
+
+            @Override
+            public void cancel() {
+                cancelled.set(true);
+            }
+        });
+
+        List<Gorg> gorgs = new ArrayList<>();
+        List<Throwable> errors = new ArrayList<>();
+        gorgReader.decode(bytes).subscribe(new Subscriber<Gorg>() {
+            private Subscription subscription;
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(Gorg gorg) {
+                assertTrue(errors.isEmpty());
+                gorgs.add(gorg);
+                this.subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                errors.add(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                throw new AssertionError("the stream should end with the error");
+            }
+        });
+
+        assertTrue(cancelled.get());
+        assertEquals(2, gorgs.size());
+        checkKing(gorgs.get(0));
+        checkQueen(gorgs.get(1));
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0) instanceof JsonMappingException);
+    }
+
+    @Test
+    public void testFoundModule() throws IOException {
+        assertTrue(ObjectMapper.findModules().stream().anyMatch(module -> module instanceof AutoJacksonModule));
+
+        // the module leaves the settings of the mapper alone, and the sample has properties the model does not
+        ObjectMapper foundMapper = new ObjectMapper().findAndRegisterModules();
+        foundMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        foundMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        File simpleModelFile = new File("resources/auto_model.json");
+        Sample sample = foundMapper.readValue(simpleModelFile, Sample.class);
+        checkSample(sample);
+        checkSample(foundMapper.readValue(foundMapper.writeValueAsString(sample), Sample.class));
+    }
+
+    @Test
+    public void testMetadataKeyedOnModule() throws IOException {
+        // named after the module, which no other jar shares
+        String reflectConfig = "META-INF/native-image/autojackson/" + AutoJacksonModule.class.getName() + "/reflect-config.json";
+        JsonNode entries = this.objectMapper.readTree(getClass().getClassLoader().getResource(reflectConfig));
+        assertTrue(StreamSupport.stream(entries.spliterator(), false)
+                .anyMatch(entry -> entry.get("name").asText().equals(Sample_AutoJacksonImpl.class.getName())));
+
+        String classList = "META-INF/autojackson/" + AutoJacksonModule.class.getName() + "/classlist";
+        assertTrue(getClass().getClassLoader().getResource(classList) != null);
+    }
+
+    @Test
+    public void testWarmUp() {
+        List<WarmUpReport> reports = AutoJacksonSetup.warmUp(this.objectMapper);
+
+        assertTrue(reports.stream().anyMatch(report -> report.getType() == Sample.class && report.getRoundTripNanos() > 0));
+        assertTrue(reports.stream().anyMatch(report -> report.getType() == Fraggle.class && report.getRoundTripNanos() > 0));
+        // the parameterization declared by a property is warmed up alongside the interface
+        assertTrue(reports.stream().anyMatch(report -> report.getJavaType().equals(
+                this.objectMapper.getTypeFactory().constructType(new TypeReference<Gobo<Long>>() { }))));
+        reports.forEach(report -> assertFalse(report.toString(), report.getFailure().isPresent()));
+
+        reports = AutoJacksonSetup.warmUp(this.objectMapper, false);
+        reports.forEach(report -> assertEquals(report.toString(), 0, report.getRoundTripNanos()));
+    }
+
+    @Test
+    public void testWarmUpWithStrictNulls() throws IOException {
+        this.objectMapper.enable(DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES);
+
+        // every property of the documents holds a value, so none of the primitives are read from null
+        AutoJacksonSetup.warmUp(this.objectMapper).forEach(report -> assertFalse(report.toString(), report.getFailure().isPresent()));
+
+        Expedition expedition = this.objectMapper.readValue(Expedition_AutoJacksonDeserializer.warmUpJson(new WarmUpDocuments()), Expedition.class);
+        assertEquals(1, expedition.getGorgsAvoided().size());
+    }
+
+    @Test
+    public void testFormattedProperties() throws IOException {
+        Postcard postcard = this.objectMapper.readValue("{\"sent\":\"10.01.1983\",\"from\":2,\"message\":\"Wish you were here\"}", Postcard.class);
+
+        // the formats on the accessors are used for reading, and writing, the values
+        assertEquals(Instant.parse("1983-01-10T00:00:00Z").toEpochMilli(), postcard.getSent().getTime());
+        assertEquals(Muppet.FOZZIE, postcard.getFrom());
+
+        JsonNode written = this.objectMapper.readTree(this.objectMapper.writeValueAsString(postcard));
+        assertEquals("10.01.1983", written.get("sent").asText());
+        assertEquals(2, written.get("from").asInt());
+        assertEquals("Wish you were here", written.get("message").asText());
+    }
+
+    @Test
+    public void testExpedition() throws IOException {
+        Sample sample = this.objectMapper.readValue(new File("resources/auto_model.json"), Sample.class);
+        String goboJson = this.objectMapper.writeValueAsString(sample.getFraggle());
+
+        // the leader is read for the type argument of the property, rather than the bound of the interface
+        Expedition expedition = this.objectMapper.readValue("{\"leader\":" + goboJson + ",\"gorgsAvoided\":[]}", Expedition.class);
+        assertEquals(Long.valueOf(4), expedition.getLeader().getX());
+        assertTrue(expedition.getGorgsAvoided().isEmpty());
+    }
+
+    @Test
+    public void testReaderRegistry() throws IOException {
+        AutoJacksonReaders readers = new AutoJacksonReaders(this.objectMapper);
+
+        Sample sample = readers.sample().readValue(new File("resources/auto_model.json"));
+        checkSample(sample);
+        checkSample(readers.sample().readValue(readers.sampleWriter().writeValueAsBytes(sample)));
+
+        checkGobo(readers.fraggle().readValue(this.objectMapper.writeValueAsString(sample.getFraggle())));
+    }
+
+    @Test
+    public void testParameterizedModel() throws IOException {
+        Sample sample = this.objectMapper.readValue(new File("resources/auto_model.json"), Sample.class);
+        String goboJson = this.objectMapper.writeValueAsString(sample.getFraggle());
+
+        // the bound of the type variable is used for the raw interface, and the type argument once there is one
+        assertEquals(4, this.objectMapper.readValue(goboJson, Gobo.class).getX());
+        Gobo<Long> gobo = this.objectMapper.readerFor(new TypeReference<Gobo<Long>>() { }).readValue(goboJson);
+        assertEquals(Long.valueOf(4), gobo.getX());
+        assertEquals(20, gobo.getFetchedPostcards());
+    }
+
+    @Test
+    public void testInterfacesSharingAName() throws IOException {
+        String json = "{ \"hardHat\" : { \"color\" : \"yellow\" }, \"floppyHat\" : { \"style\" : \"knitted\" } }";
+        Wardrobe wardrobe = this.objectMapper.readValue(json, Wardrobe.class);
+        assertEquals("yellow", wardrobe.getHardHat().getColor());
+        assertEquals("knitted", wardrobe.getFloppyHat().get().getStyle());
+
+        Wardrobe wardrobeAgain = this.objectMapper.readValue(this.objectMapper.writeValueAsString(wardrobe), Wardrobe.class);
+        assertEquals("yellow", wardrobeAgain.getHardHat().getColor());
+        assertEquals("knitted", wardrobeAgain.getFloppyHat().get().getStyle());
+    }
+
+    @Test
+    public void testTypePropertyPosition() throws IOException {
+        Sample sample = this.objectMapper.readValue(new File("resources/auto_model.json"), Sample.class);
+        String goboJson = this.objectMapper.writeValueAsString(sample.getFraggle());
+        Map<String, Object> fields = this.objectMapper.readValue(goboJson, new TypeReference<LinkedHashMap<String, Object>>() { });
+        Object name = fields.remove("name");
+        List<String> keys = new ArrayList<>(fields.keySet());
+
+        // the type property first, in the middle, and last, read from both characters and bytes
+        for (int position : new int[]{0, keys.size() / 2, keys.size()}) {
+            Map<String, Object> reordered = new LinkedHashMap<>();
+            for (int i = 0; i <= keys.size(); i++) {
+                if (i == position) {
+                    reordered.put("name", name);
+                }
+                if (i < keys.size()) {
+                    reordered.put(keys.get(i), fields.get(keys.get(i)));
+                }
+            }
+            String json = this.objectMapper.writeValueAsString(reordered);
+            checkGobo(this.objectMapper.readValue(json, Fraggle.class));
+            checkGobo(this.objectMapper.readValue(json.getBytes(UTF_8), Fraggle.class));
+        }
+    }
+
+    @Test
+    public void testModuleSharedBetweenMappers() throws IOException {
+        AutoJacksonModule module = new AutoJacksonModule();
+        ObjectMapper plainMapper = new ObjectMapper();
+        plainMapper.registerModule(new JavaTimeModule());
+        plainMapper.registerModule(new Jdk8Module());
+        plainMapper.registerModule(module);
+        plainMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        Sample sample = plainMapper.readValue(new File("resources/auto_model.json"), Sample.class);
+        String goboJson = plainMapper.writeValueAsString(sample.getFraggle());
+        checkGobo(plainMapper.readValue(goboJson, Fraggle.class));
+
+        // a copy with its own way of reading and writing maps resolves its own serializers from the same module
+        ObjectMapper customMapper = plainMapper.copy();
+        customMapper.registerModule(new SimpleModule()
+                .addDeserializer(Map.class, new StdDeserializer<Map>(Map.class) {
+                    @Override
+                    public Map deserialize(JsonParser jsonParser, DeserializationContext context) throws IOException {
+                        jsonParser.skipChildren();
+                        return Collections.singletonMap("custom", true);
+                    }
+                })
+                .addSerializer(Map.class, new StdSerializer<Map>(Map.class) {
+                    @Override
+                    public void serialize(Map value, JsonGenerator jsonGenerator, SerializerProvider provider) throws IOException {
+                        jsonGenerator.writeString("custom");
+                    }
+                }));
+        Gobo customGobo = (Gobo) customMapper.readValue(goboJson, Fraggle.class);
+        assertEquals(Collections.singletonMap("custom", true), customGobo.getMap());
+        assertTrue(customMapper.writeValueAsString(sample.getFraggle()).contains("\"zed\":\"custom\""));
+
+        checkGobo(plainMapper.readValue(goboJson, Fraggle.class));
+        assertEquals(goboJson, plainMapper.writeValueAsString(sample.getFraggle()));
+    }
+
+    @Test
+    public void testParameterizedModelSharedBetweenMappers() throws IOException {
+        AutoJacksonModule module = new AutoJacksonModule();
+        ObjectMapper plainMapper = new ObjectMapper();
+        plainMapper.registerModule(new JavaTimeModule());
+        plainMapper.registerModule(new Jdk8Module());
+        plainMapper.registerModule(module);
+        plainMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        // a second mapper, set up with the same module, reading longs its own way
+        ObjectMapper customMapper = new ObjectMapper();
+        customMapper.registerModule(new JavaTimeModule());
+        customMapper.registerModule(new Jdk8Module());
+        customMapper.registerModule(module);
+        customMapper.registerModule(new SimpleModule().addDeserializer(Long.class, new StdDeserializer<Long>(Long.class) {
+            @Override
+            public Long deserialize(JsonParser jsonParser, DeserializationContext context) throws IOException {
+                return jsonParser.getLongValue() * 100;
+            }
+        }));
+        customMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        Sample sample = plainMapper.readValue(new File("resources/auto_model.json"), Sample.class);
+        String goboJson = plainMapper.writeValueAsString(sample.getFraggle());
+        TypeReference<Gobo<Long>> goboOfLong = new TypeReference<Gobo<Long>>() { };
+
+        assertEquals(Long.valueOf(4), plainMapper.readerFor(goboOfLong).<Gobo<Long>>readValue(goboJson).getX());
+        assertEquals(Long.valueOf(400), customMapper.readerFor(goboOfLong).<Gobo<Long>>readValue(goboJson).getX());
+        assertEquals(Long.valueOf(4), plainMapper.readerFor(goboOfLong).<Gobo<Long>>readValue(goboJson).getX());
+    }
+
+    @Test(expected = JsonMappingException.class)
+    public void testMissingRequiredProperty() throws IOException {
+        this.objectMapper.readValue("{ \"name\" : \"Junior\" }", Gorg.class);
+    }
+
+    @Test(expected = InvalidTypeIdException.class)
+    public void testUnknownFraggleName() throws IOException {
+        this.objectMapper.readValue("{ \"age\" : 10, \"name\" : \"UNCLE_TRAVELLING_MATT\" }", Fraggle.class);
+    }
+
+    @Test
+    public void testCaseInsensitiveTypes() throws IOException {
+        ObjectMapper insensitiveMapper = new ObjectMapper();
+        insensitiveMapper.registerModule(new JavaTimeModule());
+        insensitiveMapper.registerModule(new Jdk8Module());
+        insensitiveMapper.enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS);
+        AutoJacksonSetup.configureObjectMapper(insensitiveMapper);
+
+        // read a token at a time
+        Fraggle wembley = insensitiveMapper.readValue("{ \"name\" : \"Wembley\", \"age\" : 9, \"occupation\" : \"fire truck siren\", " +
+                "\"fires\" : 3, \"muppeteer\" : { \"name\" : \"Steve Whitmire\" } }", Fraggle.class);
+        assertTrue(wembley instanceof Wembley);
+        assertEquals(3, ((Wembley) wembley).getNumberOfFiresPutOut());
+
+        // read as a tree
+        Puppet puppet = insensitiveMapper.readValue("{ \"kind\" : \"rod\", \"character\" : \"kermit\", \"rods\" : 2 }", Puppet.class);
+        assertTrue(puppet instanceof RodPuppet);
+        assertEquals(Muppet.KERMIT, puppet.getCharacter());
+        assertEquals(2, ((RodPuppet) puppet).getRods());
+    }
+
+    @Test(expected = InvalidTypeIdException.class)
+    public void testCaseSensitiveTypes() throws IOException {
+        this.objectMapper.readValue("{ \"kind\" : \"hand\", \"character\" : \"GONZO\", \"liveHands\" : true }", Puppet.class);
+    }
+
+    @Test
+    public void testTreeTypes() throws IOException {
+        Puppet puppet = this.objectMapper.readValue("{ \"character\" : \"GONZO\", \"kind\" : \"HAND\", \"liveHands\" : true }", Puppet.class);
+        assertTrue(puppet instanceof HandPuppet);
+        assertTrue(((HandPuppet) puppet).getLiveHands());
+
+        Puppet puppetAgain = this.objectMapper.readValue(this.objectMapper.writeValueAsString(puppet), Puppet.class);
+        assertEquals(PuppetKind.HAND, puppetAgain.getKind());
+        assertEquals(Muppet.GONZO, puppetAgain.getCharacter());
+    }
+
+    /**
+     * Counts every gorg decoded, handing the decoding itself to the generated deserializer
+     */
+    private static final class CountingGorgDeserializer extends StdDeserializer<Gorg> implements ResolvableDeserializer {
+
+        private final AtomicInteger decodes;
+        private final Gorg_AutoJacksonDeserializer deserializer = new Gorg_AutoJacksonDeserializer();
+
+        private CountingGorgDeserializer(AtomicInteger decodes) {
+            super(Gorg.class);
+            this.decodes = decodes;
+        }
+
+        @Override
+        public void resolve(DeserializationContext context) throws JsonMappingException {
+            this.deserializer.resolve(context);
+        }
+
+        @Override
+        public Gorg deserialize(JsonParser jsonParser, DeserializationContext context) throws IOException {
+            this.decodes.incrementAndGet();
+            return this.deserializer.deserialize(jsonParser, context);
+        }
+    }
+
+    private static final class InjectedGorgDeserializer extends StdDeserializer<Gorg> implements ResolvableDeserializer {
+
+        private static final String DECODES = "decodes";
+
+        private final Gorg_AutoJacksonDeserializer deserializer = new Gorg_AutoJacksonDeserializer();
+
+        private InjectedGorgDeserializer() {
+            super(Gorg.class);
+        }
+
+        @Override
+        public void resolve(DeserializationContext context) throws JsonMappingException {
+            this.deserializer.resolve(context);
+        }
+
+        @Override
+        public Gorg deserialize(JsonParser jsonParser, DeserializationContext context) throws IOException {
+            ((AtomicInteger) context.findInjectableValue(DECODES, null, null)).incrementAndGet();
+            return this.deserializer.deserialize(jsonParser, context);
+        }
+    }
+
     private void checkSample(Sample sample) throws IOException {
         assertEquals("A String", sample.getString());
         assertEquals(1, sample.getInt());
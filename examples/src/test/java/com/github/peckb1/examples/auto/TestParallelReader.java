@@ -0,0 +1,136 @@
+package com.github.peckb1.examples.auto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.peckb1.processor.ChunkReport;
+import com.github.peckb1.processor.ParallelJsonReader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestParallelReader {
+
+    private static final int GORGS = 5_000;
+    private static final int CHUNK_SIZE = 4096;
+
+    private ObjectMapper objectMapper;
+    private Path gorgFile;
+
+    @Before
+    public void setUp() throws Exception {
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new Jdk8Module());
+        this.objectMapper.registerModule(new JavaTimeModule());
+        AutoJacksonSetup.configureObjectMapper(this.objectMapper);
+        this.gorgFile = Files.createTempFile("gorgs", ".json");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Files.delete(this.gorgFile);
+    }
+
+    @Test
+    public void testOrderedLines() throws IOException {
+        String lines = IntStream.range(0, GORGS)
+                .mapToObj(this::gorgJson)
+                .collect(Collectors.joining("\n", "", "\n"));
+        Files.write(this.gorgFile, lines.getBytes(UTF_8));
+
+        Queue<ChunkReport> reports = new ConcurrentLinkedQueue<>();
+        ParallelJsonReader<Gorg> reader = new Gorg_AutoJacksonReader(this.objectMapper).parallel()
+                .withChunkSize(CHUNK_SIZE)
+                .withReporter(reports::add);
+
+        try (Stream<Gorg> gorgs = reader.readLines(this.gorgFile, true)) {
+            List<Gorg> gorgList = gorgs.collect(Collectors.toList());
+            assertEquals(GORGS, gorgList.size());
+            for (int i = 0; i < GORGS; i++) {
+                assertEquals("Gorg " + i, gorgList.get(i).getName());
+            }
+        }
+
+        assertTrue(reports.size() > 1);
+        assertEquals(Files.size(this.gorgFile), reports.stream().mapToLong(ChunkReport::getBytes).sum());
+        assertEquals(GORGS, reports.stream().mapToInt(ChunkReport::getValues).sum());
+    }
+
+    @Test
+    public void testUnorderedLines() throws IOException {
+        // no trailing line ending, and a line longer than a whole chunk
+        String longName = IntStream.range(0, CHUNK_SIZE).mapToObj(i -> "x").collect(Collectors.joining());
+        String lines = IntStream.range(0, GORGS)
+                .mapToObj(i -> i == GORGS / 2 ? "{ \"name\" : \"" + longName + "\", \"age\" : " + i + " }" : gorgJson(i))
+                .collect(Collectors.joining("\n"));
+        Files.write(this.gorgFile, lines.getBytes(UTF_8));
+
+        ParallelJsonReader<Gorg> reader = new Gorg_AutoJacksonReader(this.objectMapper).parallel()
+                .withChunkSize(CHUNK_SIZE);
+
+        try (Stream<Gorg> gorgs = reader.readLines(this.gorgFile, false)) {
+            List<Integer> ages = gorgs.map(Gorg::getAge).sorted().collect(Collectors.toList());
+            assertEquals(IntStream.range(0, GORGS).boxed().collect(Collectors.toList()), ages);
+        }
+    }
+
+    @Test
+    public void testArray() throws IOException {
+        // names full of the characters the scan has to look out for
+        String elements = IntStream.range(0, GORGS)
+                .mapToObj(i -> "{ \"name\" : \"[Gorg, {\\\"" + i + "\\\"}]\\\\\", \"age\" : " + i + " }")
+                .collect(Collectors.joining(",\n  ", " [\n  ", "\n]\n"));
+        Files.write(this.gorgFile, elements.getBytes(UTF_8));
+
+        ParallelJsonReader<Gorg> reader = new Gorg_AutoJacksonReader(this.objectMapper).parallel()
+                .withChunkSize(CHUNK_SIZE);
+
+        try (Stream<Gorg> gorgs = reader.readArray(this.gorgFile, true)) {
+            List<Gorg> gorgList = gorgs.collect(Collectors.toList());
+            assertEquals(GORGS, gorgList.size());
+            for (int i = 0; i < GORGS; i++) {
+                assertEquals("[Gorg, {\"" + i + "\"}]\\", gorgList.get(i).getName());
+            }
+        }
+
+        Files.write(this.gorgFile, "[]".getBytes(UTF_8));
+        try (Stream<Gorg> gorgs = reader.readArray(this.gorgFile, false)) {
+            assertEquals(0, gorgs.count());
+        }
+    }
+
+    @Test
+    public void testSampleArray() throws IOException {
+        String sample = new String(Files.readAllBytes(Paths.get("resources/auto_model.json")), UTF_8);
+        String samples = IntStream.range(0, 200)
+                .mapToObj(i -> sample)
+                .collect(Collectors.joining(",", "[", "]"));
+        Files.write(this.gorgFile, samples.getBytes(UTF_8));
+
+        ParallelJsonReader<Sample> reader = new Sample_AutoJacksonReader(this.objectMapper).parallel()
+                .withChunkSize(CHUNK_SIZE);
+
+        try (Stream<Sample> sampleStream = reader.readArray(this.gorgFile, false)) {
+            assertEquals(200, sampleStream.filter(s -> "A String".equals(s.getString())).count());
+        }
+    }
+
+    private String gorgJson(int i) {
+        return "{ \"name\" : \"Gorg " + i + "\", \"age\" : " + i + " }";
+    }
+}
@@ -9,7 +9,7 @@ import com.github.peckb1.examples.base.fraggles.Wembley;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
-import peckb1.autojackson.AutoJacksonSetup;
+import com.github.peckb1.examples.auto.AutoJacksonSetup;
 import com.github.peckb1.examples.base.Fraggle.FraggleName;
 import com.github.peckb1.examples.base.fraggles.Boober;
 
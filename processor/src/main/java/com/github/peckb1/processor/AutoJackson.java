@@ -48,6 +48,35 @@ public @interface AutoJackson {
 
     Type type() default @Type(value = NoTypeEnum.class);
 
+    /**
+     * Whether the created deserializer should read the JSON data a token at a time,
+     * calling the constructor of the implementation class directly. Setting this to
+     * false falls back to reading the full JSON object into a tree before converting it.
+     *
+     * @return true to create a streaming deserializer, false to use the tree based deserializer
+     */
+    boolean streaming() default true;
+
+    /**
+     * Whether the created implementation class should use a compact memory layout. Optional
+     * properties are held as nullable references, booleans are packed into a bitfield, and
+     * boxed numbers are held as primitives along with a bit marking if they were present.
+     * The accessor methods return the same values either way, but may create the Optional
+     * or boxed value on each call.
+     *
+     * @return true to create a compact implementation class, false to hold each property as is
+     */
+    boolean compact() default false;
+
+    /**
+     * Whether any properties holding JSON objects or arrays should only be decoded the first time
+     * their accessor is called. Until then the implementation class holds on to the encoded bytes
+     * of the property. Decoding happens once, and is safe to trigger from multiple threads.
+     *
+     * @return true to decode nested objects and arrays lazily, false to decode everything up front
+     */
+    boolean lazy() default false;
+
     @interface Type {
 
         Class<? extends Enum> value();
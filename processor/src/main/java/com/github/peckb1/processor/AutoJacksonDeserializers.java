@@ -0,0 +1,42 @@
+package com.github.peckb1.processor;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.Deserializers;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The deserializers of a generated module, creating a new deserializer every time Jackson looks one up.
+ * <p>
+ * The generated deserializers hold on to the deserializers they resolve for their properties, which
+ * come from the mapper resolving them. Jackson caches what it looks up here per mapper, including
+ * copies made through {@link com.fasterxml.jackson.databind.ObjectMapper#copy()}, so handing each
+ * lookup its own instance keeps what one mapper resolved away from every other mapper sharing the
+ * module, the same way Jackson creates a {@code BeanDeserializer} for each mapper.
+ */
+public final class AutoJacksonDeserializers extends Deserializers.Base {
+
+    private final Map<Class<?>, Supplier<? extends JsonDeserializer<?>>> deserializers = new HashMap<>();
+
+    /**
+     * @param type         The interface to deserialize
+     * @param deserializer Creates a new deserializer for the interface
+     * @param <T>          The type of the interface
+     * @return This, to add more deserializers to
+     */
+    public <T> AutoJacksonDeserializers add(Class<T> type, Supplier<? extends JsonDeserializer<? extends T>> deserializer) {
+        this.deserializers.put(type, deserializer);
+        return this;
+    }
+
+    @Override
+    public JsonDeserializer<?> findBeanDeserializer(JavaType type, DeserializationConfig config, BeanDescription beanDesc) {
+        Supplier<? extends JsonDeserializer<?>> deserializer = this.deserializers.get(type.getRawClass());
+        return deserializer == null ? null : deserializer.get();
+    }
+}
@@ -0,0 +1,201 @@
+package com.github.peckb1.processor;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decodes a stream of JSON values published as {@link ByteBuffer}s into a stream of the values
+ * themselves, with back pressure from the subscriber of the values flowing up to the publisher of
+ * the bytes.
+ * <p>
+ * The streams are Reactive Streams {@link Publisher}s, which keeps the processor working on Java 8,
+ * where {@code java.util.concurrent.Flow} does not exist, and plugs straight into the libraries built
+ * on them. {@code org.reactivestreams.FlowAdapters} converts to and from {@code Flow} on Java 9 and later.
+ * <p>
+ * Bytes are only requested from the publisher one buffer at a time, once every value decoded from
+ * the previous buffers has been handed to the subscriber and the subscriber wants more. So the only
+ * values held on to are those completed by a single buffer, along with the bytes of the value part
+ * way through, however large the stream is. The bytes are read by a {@link JsonValueFeeder}, so the
+ * same objects or arrays separated by whitespace, such as newline delimited JSON, are expected.
+ * <p>
+ * A value which can not be decoded ends the stream, as an error is the last signal a subscriber
+ * may be given. The bytes are no longer asked for, but the values decoded before the error is
+ * passed on, including those after the failed value within the same buffer, are still handed to
+ * the subscriber as it requests them, the same as the feeder hands over the values around a
+ * failed one. An error from the publisher of the bytes is passed on the same way.
+ */
+public final class AutoJacksonFlow {
+
+    private AutoJacksonFlow() {
+    }
+
+    /**
+     * @param bytes  The encoded values, subscribed to again for each subscriber of the values
+     * @param reader A reader for the type of the values, from a mapper set up through {@code AutoJacksonSetup}
+     * @param <T>    The type of the values
+     * @return A publisher of each value, decoded as the bytes for it arrive
+     */
+    public static <T> Publisher<T> decode(Publisher<ByteBuffer> bytes, ObjectReader reader) {
+        return subscriber -> bytes.subscribe(new DecodingSubscription<>(reader, subscriber));
+    }
+
+    /**
+     * Sits between the publisher of the bytes and the subscriber of the values. Signals from either side
+     * may arrive on any thread, so values are only ever handed over from inside of {@link #drain()}, which
+     * a single thread runs at a time.
+     */
+    private static final class DecodingSubscription<T> implements Subscriber<ByteBuffer>, Subscription {
+
+        private final Subscriber<? super T> downstream;
+        private final JsonValueFeeder<T> feeder;
+        private final Queue<T> decoded = new ConcurrentLinkedQueue<>();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger drains = new AtomicInteger();
+
+        private Subscription upstream;
+        private volatile boolean bufferRequested = false;
+        private volatile boolean done = false;
+        private volatile boolean cancelled = false;
+        private volatile Throwable error;
+
+        DecodingSubscription(ObjectReader reader, Subscriber<? super T> downstream) {
+            this.downstream = downstream;
+            this.feeder = new JsonValueFeeder<>(reader, this.decoded::add);
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            if (this.upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            this.upstream = subscription;
+            this.downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(ByteBuffer buffer) {
+            if (this.done) {
+                return;
+            }
+            try {
+                this.feeder.feedInput(buffer);
+            } catch (IOException | RuntimeException e) {
+                this.upstream.cancel();
+                fail(e);
+                return;
+            }
+            this.bufferRequested = false;
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (!this.done) {
+                fail(throwable);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (this.done) {
+                return;
+            }
+            try {
+                this.feeder.endOfInput();
+            } catch (IOException e) {
+                fail(e);
+                return;
+            }
+            this.done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                this.upstream.cancel();
+                this.decoded.clear();
+                fail(new IllegalArgumentException("The number of values requested must be positive, not " + n));
+                return;
+            }
+            long current;
+            do {
+                current = this.requested.get();
+            } while (!this.requested.compareAndSet(current, current + n < 0 ? Long.MAX_VALUE : current + n));
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            this.upstream.cancel();
+            drain();
+        }
+
+        private void fail(Throwable throwable) {
+            this.error = throwable;
+            this.done = true;
+            drain();
+        }
+
+        /**
+         * Hands over as many decoded values as have been requested, asking for the next buffer once
+         * they have all been handed over, and passes on the end of the stream once nothing is left
+         */
+        private void drain() {
+            if (this.drains.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                long requested = this.requested.get();
+                long emitted = 0;
+                while (!this.cancelled) {
+                    // whatever ended the stream, the values decoded before it are handed over first
+                    boolean done = this.done;
+                    if (done && this.decoded.isEmpty()) {
+                        terminate();
+                        break;
+                    }
+                    if (emitted == requested || this.decoded.isEmpty()) {
+                        break;
+                    }
+                    this.downstream.onNext(this.decoded.poll());
+                    emitted++;
+                }
+
+                if (this.cancelled) {
+                    this.decoded.clear();
+                } else {
+                    if (emitted != 0 && requested != Long.MAX_VALUE) {
+                        this.requested.addAndGet(-emitted);
+                    }
+                    if (!this.done && !this.bufferRequested && this.decoded.isEmpty() && this.requested.get() > 0) {
+                        this.bufferRequested = true;
+                        this.upstream.request(1);
+                    }
+                }
+                missed = this.drains.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void terminate() {
+            this.cancelled = true;
+            if (this.error != null) {
+                this.downstream.onError(this.error);
+            } else {
+                this.downstream.onComplete();
+            }
+        }
+    }
+}
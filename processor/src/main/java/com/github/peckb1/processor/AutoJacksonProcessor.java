@@ -1,16 +1,18 @@
 package com.github.peckb1.processor;
 
-import com.github.peckb1.processor.util.SetupCreator;
 import com.google.auto.service.AutoService;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Sets;
 import com.github.peckb1.processor.util.ComplexDeserializerCreator;
 import com.github.peckb1.processor.util.ImplementationCreator;
+import com.github.peckb1.processor.util.MethodDetailLoader;
+import com.github.peckb1.processor.util.PhaseTimer;
 import com.github.peckb1.processor.util.ProcessorUtil;
+import com.github.peckb1.processor.util.ReaderCreator;
+import com.github.peckb1.processor.util.SerializerCreator;
 import com.github.peckb1.processor.util.SimpleDeserializerCreator;
+import com.github.peckb1.processor.util.SourceWriter;
 
 import javax.annotation.processing.AbstractProcessor;
-import javax.annotation.processing.Filer;
 import javax.annotation.processing.Messager;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.Processor;
@@ -21,6 +23,8 @@ import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -32,14 +36,14 @@ import java.util.Set;
  * given, then a the deserializer will be a bit more complex and use the
  * child interfaces to match the correct type. If no {@link AutoJackson.Type}
  * is given, then a simple deserializer is created, as well as a base
- * implementation class to create an instance of the annotated interface.
+ * implementation class to create an instance of the annotated interface,
+ * and a serializer to write those instances back out as JSON. Every interface
+ * also gets a reader for decoding instances straight out of byte buffers.
  * <p>
- * After all deserializers, and implementation classes have been created
- * a single setup class will be created which will modify an
- * {@link com.fasterxml.jackson.databind.ObjectMapper} to have all of the
- * required deserializers and Jackson settings needed to create the
- * annotated interfaces from JSON, and to create JSON from one of those
- * interfaces' instances.
+ * Every class created here comes from a single annotated interface, so the
+ * processor is isolating for Gradle's incremental compilation, and only the
+ * classes of interfaces that change are created again. The setup class
+ * bringing all of them together is created by the {@link AutoJacksonSetupProcessor}.
  */
 @AutoService(Processor.class)
 public class AutoJacksonProcessor extends AbstractProcessor {
@@ -48,7 +52,11 @@ public class AutoJacksonProcessor extends AbstractProcessor {
     private ProcessorUtil processorUtil;
     private SimpleDeserializerCreator simpleDeserializerCreator;
     private ComplexDeserializerCreator complexDeserializerCreator;
-    private SetupCreator setupCreator;
+    private SerializerCreator serializerCreator;
+    private ReaderCreator readerCreator;
+    private MethodDetailLoader methodDetailLoader;
+    private SourceWriter sourceWriter;
+    private PhaseTimer phaseTimer;
 
     @Override
     public synchronized void init(ProcessingEnvironment processingEnv) {
@@ -56,14 +64,25 @@ public class AutoJacksonProcessor extends AbstractProcessor {
 
         final Types typeUtils = processingEnv.getTypeUtils();
         final Elements elementUtils = processingEnv.getElementUtils();
-        final Filer filer = processingEnv.getFiler();
         final Messager messager = processingEnv.getMessager();
 
-        this.processorUtil = new ProcessorUtil(elementUtils, messager);
-        this.implementationCreator = new ImplementationCreator(typeUtils, elementUtils, filer, this.processorUtil);
-        this.simpleDeserializerCreator = new SimpleDeserializerCreator(typeUtils, elementUtils, filer, this.processorUtil);
-        this.complexDeserializerCreator = new ComplexDeserializerCreator(typeUtils, elementUtils, filer, this.processorUtil);
-        this.setupCreator = new SetupCreator(filer, this.processorUtil);
+        this.processorUtil = new ProcessorUtil(typeUtils, elementUtils, messager);
+        this.sourceWriter = new SourceWriter(processingEnv.getFiler(), processingEnv.getOptions().get(SourceWriter.MANIFEST_OPTION), getClass().getSimpleName() + ".sha256");
+        this.methodDetailLoader = new MethodDetailLoader(this.processorUtil);
+        this.implementationCreator = new ImplementationCreator(elementUtils, this.sourceWriter, this.processorUtil, this.methodDetailLoader);
+        this.simpleDeserializerCreator = new SimpleDeserializerCreator(typeUtils, elementUtils, this.sourceWriter, this.processorUtil, this.methodDetailLoader);
+        this.serializerCreator = new SerializerCreator(typeUtils, elementUtils, this.sourceWriter, this.processorUtil, this.methodDetailLoader);
+        this.complexDeserializerCreator = new ComplexDeserializerCreator(typeUtils, elementUtils, this.sourceWriter, this.processorUtil);
+        this.readerCreator = new ReaderCreator(this.sourceWriter, this.processorUtil);
+        this.phaseTimer = new PhaseTimer(Boolean.parseBoolean(processingEnv.getOptions().get(PhaseTimer.TIMINGS_OPTION)));
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        HashSet<String> options = Sets.newHashSet();
+        options.add(PhaseTimer.TIMINGS_OPTION);
+        options.add(SourceWriter.MANIFEST_OPTION);
+        return options;
     }
 
     @Override
@@ -80,7 +99,9 @@ public class AutoJacksonProcessor extends AbstractProcessor {
 
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
-        ImmutableList.Builder<TypeElement> interfacesWithDeserializers = ImmutableList.builder();
+        // anything looked up about the model is shared by every creator, but only for this round
+        this.processorUtil.startRound();
+        this.methodDetailLoader.startRound();
 
         // Iterate over each 'item' annotated with the AutoJackson class
         roundEnv.getElementsAnnotatedWith(AutoJackson.class).forEach(element -> {
@@ -90,21 +111,22 @@ public class AutoJacksonProcessor extends AbstractProcessor {
             }
 
             TypeElement typeElement = (TypeElement) element; // cast our interface to a `TypeElement`
-            interfacesWithDeserializers.add(typeElement); // add it to our main list for the setup class creation
 
             // check the type of objects we need to create
             AutoJackson annotation = typeElement.getAnnotation(AutoJackson.class);
-            if (isSimpleClass(annotation)) {
-                this.implementationCreator.implementInterface(typeElement);
-                this.simpleDeserializerCreator.createDeserializer(typeElement);
+            if (this.processorUtil.isSimpleClass(annotation)) {
+                this.phaseTimer.time("ImplementationCreator", () -> this.implementationCreator.implementInterface(typeElement));
+                this.phaseTimer.time("SerializerCreator", () -> this.serializerCreator.createSerializer(typeElement));
+                this.phaseTimer.time("SimpleDeserializerCreator", () -> this.simpleDeserializerCreator.createDeserializer(typeElement));
             } else {
-                this.complexDeserializerCreator.createDeserializer(typeElement);
+                this.phaseTimer.time("ComplexDeserializerCreator", () -> this.complexDeserializerCreator.createDeserializer(typeElement));
             }
+            this.phaseTimer.time("ReaderCreator", () -> this.readerCreator.createReader(typeElement));
         });
 
-        ImmutableList<TypeElement> interfaces = interfacesWithDeserializers.build();
-        if (!interfaces.isEmpty()) {
-            this.setupCreator.createSetupClass(interfaces);
+        if (roundEnv.processingOver()) {
+            writeManifest();
+            this.phaseTimer.report(this.processingEnv.getMessager());
         }
 
         // return false, in case someone else ALSO wants to do something with our annotation
@@ -112,17 +134,15 @@ public class AutoJacksonProcessor extends AbstractProcessor {
     }
 
     /**
-     * Checks if a given {@link AutoJackson.Type} was specified by the user, and we
-     * have a more complex scenario. Or if {@link NoTypeEnum} was left (the default)
-     * and we have a simple case to handle.
-     *
-     * @param annotation The annotation to check the type of
-     * @return true if the annotation does not have a custom type, false if it does
+     * Writes the hashes of the classes created, failing to do so only means the
+     * next build will treat every class as changed
      */
-    private boolean isSimpleClass(AutoJackson annotation) {
-        String annotationValueName = this.processorUtil.getTypeElement(annotation).getQualifiedName().toString();
-        String defaultName = NoTypeEnum.class.getCanonicalName();
-        return annotationValueName.equals(defaultName);
+    private void writeManifest() {
+        try {
+            this.sourceWriter.writeManifest();
+        } catch (IOException e) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Could not write the AutoJackson source manifest: " + e.getMessage());
+        }
     }
 
     /**
@@ -0,0 +1,108 @@
+package com.github.peckb1.processor;
+
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.PropertyMetadata;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+
+/**
+ * Looks up the serializers and deserializers of the properties of an {@link AutoJackson} interface
+ * the same way Jackson does for the properties of a bean. Each property is described by a
+ * {@link BeanProperty} holding the accessor method of the interface, so annotations on the
+ * accessor, or on a mix-in for the interface, such as {@code @JsonFormat} or
+ * {@code @JsonDeserialize(using = ...)}, apply to the value of the property.
+ * <p>
+ * The generated serializers and deserializers call these once, when they are resolved.
+ */
+public final class AutoJacksonProperties {
+
+    private AutoJacksonProperties() {
+    }
+
+    /**
+     * @param config       The configuration of the mapper
+     * @param type         The interface the property belongs to
+     * @param accessorName The name of the accessor method of the property
+     * @param name         The name of the property in the JSON data
+     * @param propertyType The type of the property
+     * @param required     Whether the property has to be present in the JSON data
+     * @return The property, with the accessor method as its member if the interface has one by that name
+     */
+    public static BeanProperty create(MapperConfig<?> config, Class<?> type, String accessorName, String name, JavaType propertyType, boolean required) {
+        AnnotatedMember accessor = config.introspectClassAnnotations(type).getClassInfo().findMethod(accessorName, null);
+        return new BeanProperty.Std(PropertyName.construct(name), propertyType, null, accessor,
+                required ? PropertyMetadata.STD_REQUIRED : PropertyMetadata.STD_OPTIONAL);
+    }
+
+    /**
+     * @param context  The context the deserializer is resolved in
+     * @param property The property to read
+     * @return The deserializer named by the annotations of the property, or else the one Jackson has
+     * for its type, made contextual for the property either way
+     * @throws JsonMappingException If the deserializer could not be created
+     */
+    @SuppressWarnings("unchecked")
+    public static JsonDeserializer<Object> findDeserializer(DeserializationContext context, BeanProperty property) throws JsonMappingException {
+        AnnotationIntrospector introspector = context.getAnnotationIntrospector();
+        AnnotatedMember accessor = property.getMember();
+        if (introspector == null || accessor == null) {
+            return context.findContextualValueDeserializer(property.getType(), property);
+        }
+
+        JavaType type = introspector.refineDeserializationType(context.getConfig(), accessor, property.getType());
+        if (type.isContainerType() || type.isReferenceType()) {
+            Object contentDeserializer = introspector.findContentDeserializer(accessor);
+            if (contentDeserializer != null) {
+                type = type.withContentValueHandler(context.deserializerInstance(accessor, contentDeserializer));
+            }
+        }
+        BeanProperty typedProperty = withType(property, type);
+
+        Object deserializer = introspector.findDeserializer(accessor);
+        if (deserializer != null) {
+            return (JsonDeserializer<Object>) context.handlePrimaryContextualization(context.deserializerInstance(accessor, deserializer), typedProperty, type);
+        }
+        return context.findContextualValueDeserializer(type, typedProperty);
+    }
+
+    /**
+     * @param provider The provider the serializer is resolved by
+     * @param property The property to write
+     * @return The serializer named by the annotations of the property, or else the one Jackson has
+     * for its type, made contextual for the property either way
+     * @throws JsonMappingException If the serializer could not be created
+     */
+    @SuppressWarnings("unchecked")
+    public static JsonSerializer<Object> findSerializer(SerializerProvider provider, BeanProperty property) throws JsonMappingException {
+        AnnotationIntrospector introspector = provider.getAnnotationIntrospector();
+        AnnotatedMember accessor = property.getMember();
+        if (introspector == null || accessor == null) {
+            return provider.findTypedValueSerializer(property.getType(), true, property);
+        }
+
+        Object serializer = introspector.findSerializer(accessor);
+        if (serializer != null) {
+            return (JsonSerializer<Object>) provider.handlePrimaryContextualization(provider.serializerInstance(accessor, serializer), property);
+        }
+        JavaType type = introspector.refineSerializationType(provider.getConfig(), accessor, property.getType());
+        return provider.findTypedValueSerializer(type, true, withType(property, type));
+    }
+
+    /**
+     * @return The property, with the type refined by the annotations of its accessor
+     */
+    private static BeanProperty withType(BeanProperty property, JavaType type) {
+        if (type == property.getType()) {
+            return property;
+        }
+        return new BeanProperty.Std(property.getFullName(), type, property.getWrapperName(), property.getMember(), property.getMetadata());
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.peckb1.processor;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.ser.Serializers;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The serializers of a generated module, creating a new serializer every time Jackson looks one up.
+ * <p>
+ * The generated serializers hold on to the serializers they resolve for their properties, along with
+ * the serializers found for each class of a property whose class is only known when writing. Those
+ * come from the mapper doing the writing, so each lookup gets its own instance for the same reason
+ * as {@link AutoJacksonDeserializers}.
+ */
+public final class AutoJacksonSerializers extends Serializers.Base {
+
+    private final Map<Class<?>, Supplier<? extends JsonSerializer<?>>> serializers = new HashMap<>();
+
+    /**
+     * @param type       The implementation class to serialize, matched exactly
+     * @param serializer Creates a new serializer for the class
+     * @param <T>        The type of the implementation class
+     * @return This, to add more serializers to
+     */
+    public <T> AutoJacksonSerializers add(Class<T> type, Supplier<? extends JsonSerializer<? super T>> serializer) {
+        this.serializers.put(type, serializer);
+        return this;
+    }
+
+    @Override
+    public JsonSerializer<?> findSerializer(SerializationConfig config, JavaType type, BeanDescription beanDesc) {
+        Supplier<? extends JsonSerializer<?>> serializer = this.serializers.get(type.getRawClass());
+        return serializer == null ? null : serializer.get();
+    }
+}
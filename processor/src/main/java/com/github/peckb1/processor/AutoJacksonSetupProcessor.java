@@ -0,0 +1,133 @@
+package com.github.peckb1.processor;
+
+import com.github.peckb1.processor.util.MetadataCreator;
+import com.github.peckb1.processor.util.PhaseTimer;
+import com.github.peckb1.processor.util.ProcessorUtil;
+import com.github.peckb1.processor.util.RegistryCreator;
+import com.github.peckb1.processor.util.SetupCreator;
+import com.github.peckb1.processor.util.SourceWriter;
+import com.google.auto.service.AutoService;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import com.squareup.javapoet.ClassName;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Creates the Jackson module holding every serializer and deserializer created,
+ * a registry of readers and writers for every interface, the metadata native images and class data sharing need about the created classes,
+ * and the setup class, named after the module, which will modify an
+ * {@link com.fasterxml.jackson.databind.ObjectMapper} to have all of the
+ * required deserializers and Jackson settings needed to create the
+ * annotated interfaces from JSON, and to create JSON from one of those
+ * interfaces' instances.
+ * <p>
+ * The setup class depends on every {@link AutoJackson} interface, so unlike the
+ * {@link AutoJacksonProcessor} this processor is aggregating for Gradle's incremental
+ * compilation. It only lists the classes the other processor creates, which keeps
+ * running it again for every interface cheap.
+ */
+@AutoService(Processor.class)
+public class AutoJacksonSetupProcessor extends AbstractProcessor {
+
+    private ProcessorUtil processorUtil;
+    private SourceWriter sourceWriter;
+    private SetupCreator setupCreator;
+    private RegistryCreator registryCreator;
+    private MetadataCreator metadataCreator;
+    private PhaseTimer phaseTimer;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+
+        this.processorUtil = new ProcessorUtil(processingEnv.getTypeUtils(), processingEnv.getElementUtils(), processingEnv.getMessager());
+        this.sourceWriter = new SourceWriter(processingEnv.getFiler(), processingEnv.getOptions().get(SourceWriter.MANIFEST_OPTION), getClass().getSimpleName() + ".sha256");
+        this.setupCreator = new SetupCreator(processingEnv.getFiler(), this.sourceWriter, this.processorUtil,
+                processingEnv.getOptions().get(SetupCreator.MODULE_OPTION));
+        this.registryCreator = new RegistryCreator(this.sourceWriter, this.processorUtil);
+        this.metadataCreator = new MetadataCreator(processingEnv.getFiler(), this.processorUtil);
+        this.phaseTimer = new PhaseTimer(Boolean.parseBoolean(processingEnv.getOptions().get(PhaseTimer.TIMINGS_OPTION)));
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        HashSet<String> options = Sets.newHashSet();
+        options.add(PhaseTimer.TIMINGS_OPTION);
+        options.add(SourceWriter.MANIFEST_OPTION);
+        options.add(SetupCreator.MODULE_OPTION);
+        return options;
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        HashSet<String> annotations = Sets.newHashSet();
+        annotations.add(AutoJackson.class.getCanonicalName());
+        return annotations;
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        ImmutableList.Builder<TypeElement> interfacesWithDeserializers = ImmutableList.builder();
+        ImmutableList.Builder<TypeElement> interfacesWithSerializers = ImmutableList.builder();
+
+        this.processorUtil.startRound();
+
+        // anything which is not an interface is reported by the AutoJacksonProcessor
+        roundEnv.getElementsAnnotatedWith(AutoJackson.class).stream()
+                .filter(element -> element.getKind() == ElementKind.INTERFACE)
+                .map(element -> (TypeElement) element)
+                .forEach(typeElement -> {
+                    interfacesWithDeserializers.add(typeElement);
+                    if (this.processorUtil.isSimpleClass(typeElement.getAnnotation(AutoJackson.class))) {
+                        interfacesWithSerializers.add(typeElement);
+                    }
+                });
+
+        ImmutableList<TypeElement> interfaces = interfacesWithDeserializers.build();
+        if (!interfaces.isEmpty()) {
+            ImmutableList<TypeElement> implementedInterfaces = interfacesWithSerializers.build();
+            ClassName moduleClassName = this.setupCreator.createModuleClassName(interfaces);
+            this.phaseTimer.time("SetupCreator", () -> this.setupCreator.createSetupClass(interfaces, implementedInterfaces));
+            this.phaseTimer.time("RegistryCreator", () -> this.registryCreator.createRegistry(moduleClassName, interfaces, implementedInterfaces));
+            this.phaseTimer.time("MetadataCreator", () -> this.metadataCreator.createMetadata(
+                    moduleClassName, SetupCreator.createSiblingClassName(moduleClassName, SetupCreator.SETUP_CLASS_SUFFIX), interfaces, implementedInterfaces));
+        }
+
+        if (roundEnv.processingOver()) {
+            writeManifest();
+            this.phaseTimer.report(this.processingEnv.getMessager());
+        }
+
+        // return false, in case someone else ALSO wants to do something with our annotation
+        return false;
+    }
+
+    /**
+     * Writes the hash of the setup class, failing to do so only means the
+     * next build will treat it as changed
+     */
+    private void writeManifest() {
+        try {
+            this.sourceWriter.writeManifest();
+        } catch (IOException e) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Could not write the AutoJackson source manifest: " + e.getMessage());
+        }
+    }
+
+}
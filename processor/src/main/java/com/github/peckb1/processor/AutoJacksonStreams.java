@@ -0,0 +1,37 @@
+package com.github.peckb1.processor;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Helpers used by the generated readers to hand out the values of a
+ * {@link MappingIterator} as a {@link Stream}.
+ */
+public final class AutoJacksonStreams {
+
+    private AutoJacksonStreams() {
+    }
+
+    /**
+     * @param values The values to stream, read one at a time as the stream is consumed
+     * @param <T>    The type of the values
+     * @return A sequential stream which closes the iterator, and the parser behind it, when closed
+     */
+    public static <T> Stream<T> stream(MappingIterator<T> values) {
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(values, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false)
+                .onClose(() -> {
+                    try {
+                        values.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.peckb1.processor;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+
+/**
+ * Converts the value of the type property of an {@link AutoJackson} interface with a
+ * {@link AutoJackson.Type} into its enum constant the way Jackson would.
+ * <p>
+ * The generated deserializers match the JSON names of the constants themselves, and only
+ * fall back to this for any other value, so features such as
+ * {@link com.fasterxml.jackson.databind.MapperFeature#ACCEPT_CASE_INSENSITIVE_ENUMS} or
+ * {@link com.fasterxml.jackson.databind.DeserializationFeature#READ_ENUMS_USING_TO_STRING}
+ * still pick the type.
+ */
+public final class AutoJacksonTypeIds {
+
+    private AutoJacksonTypeIds() {
+    }
+
+    /**
+     * @param jsonParser The parser the object holding the type property is read from
+     * @param context    The context of the read
+     * @param enumType   The enum of the type property
+     * @param typeId     The value of the type property
+     * @param <E>        The enum of the type property
+     * @return The constant Jackson converts the value into, or null if there is none
+     * @throws IOException If the value could not be read
+     */
+    public static <E extends Enum<E>> E find(JsonParser jsonParser, DeserializationContext context, Class<E> enumType, String typeId) throws IOException {
+        JsonDeserializer<Object> deserializer = context.findRootValueDeserializer(context.constructType(enumType));
+        TokenBuffer buffer = new TokenBuffer(jsonParser, context);
+        buffer.writeString(typeId);
+        try (JsonParser typeParser = buffer.asParser(jsonParser)) {
+            typeParser.nextToken();
+            return enumType.cast(deserializer.deserialize(typeParser, context));
+        } catch (InvalidFormatException e) {
+            // reported as an unknown type by the caller instead
+            return null;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.peckb1.processor;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+
+/**
+ * Warms up an {@link ObjectMapper} for a single {@link AutoJackson} interface, so that the
+ * first document read or written after startup does not pay for finding and resolving the
+ * serializer and deserializer, and optionally for the first, interpreted, round trip.
+ * <p>
+ * The generated {@code AutoJacksonSetup.warmUp} calls this for every interface it knows about,
+ * and for every parameterization of an interface declared by the properties of the others.
+ */
+public final class AutoJacksonWarmUp {
+
+    private AutoJacksonWarmUp() {
+    }
+
+    /**
+     * @param objectMapper       The mapper to warm up, already configured for the interface
+     * @param type               The interface to warm up
+     * @param implementationType The implementation class written by the serializer, or null if the interface has none
+     * @param documents          The documents to read and write back out, or null to only look up the serializers
+     * @return How long each step took, and why it failed if it did
+     */
+    public static WarmUpReport warmUp(ObjectMapper objectMapper, Class<?> type, Class<?> implementationType, WarmUpDocuments documents) {
+        return warmUp(objectMapper, objectMapper.constructType(type), implementationType, documents);
+    }
+
+    /**
+     * @param objectMapper       The mapper to warm up, already configured for the interface
+     * @param type               The interface to warm up, along with any type arguments
+     * @param implementationType The implementation class written by the serializer, or null if the interface has none
+     * @param documents          The documents to read and write back out, or null to only look up the serializers
+     * @return How long each step took, and why it failed if it did
+     */
+    public static WarmUpReport warmUp(ObjectMapper objectMapper, JavaType type, Class<?> implementationType, WarmUpDocuments documents) {
+        long start = System.nanoTime();
+        ObjectReader reader;
+        try {
+            // both look up and resolve their root serializers as they are created
+            reader = objectMapper.readerFor(type);
+            if (implementationType != null) {
+                objectMapper.writerFor(createImplementationType(objectMapper, type, implementationType));
+            }
+        } catch (RuntimeException e) {
+            return new WarmUpReport(type, System.nanoTime() - start, 0, e);
+        }
+        long resolveNanos = System.nanoTime() - start;
+
+        if (documents == null) {
+            return new WarmUpReport(type, resolveNanos, 0, null);
+        }
+
+        start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            objectMapper.writeValueAsBytes(reader.readValue(documents.of(type.getRawClass())));
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+        }
+        return new WarmUpReport(type, resolveNanos, System.nanoTime() - start, failure);
+    }
+
+    /**
+     * @return The implementation class, given the same type arguments as the interface
+     */
+    private static JavaType createImplementationType(ObjectMapper objectMapper, JavaType type, Class<?> implementationType) {
+        if (type.getBindings().isEmpty()) {
+            return objectMapper.constructType(implementationType);
+        }
+        return objectMapper.getTypeFactory().constructParametricType(implementationType,
+                type.getBindings().getTypeParameters().toArray(new JavaType[0]));
+    }
+}
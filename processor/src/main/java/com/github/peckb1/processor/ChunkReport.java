@@ -0,0 +1,69 @@
+package com.github.peckb1.processor;
+
+/**
+ * The work done decoding a single chunk of a file read by a {@link ParallelJsonReader}.
+ */
+public final class ChunkReport {
+
+    private final int index;
+    private final long offset;
+    private final long bytes;
+    private final int values;
+    private final long nanos;
+
+    ChunkReport(int index, long offset, long bytes, int values, long nanos) {
+        this.index = index;
+        this.offset = offset;
+        this.bytes = bytes;
+        this.values = values;
+        this.nanos = nanos;
+    }
+
+    /**
+     * @return The position of the chunk in the file, starting from zero
+     */
+    public int getIndex() {
+        return this.index;
+    }
+
+    /**
+     * @return The offset in bytes of the start of the chunk
+     */
+    public long getOffset() {
+        return this.offset;
+    }
+
+    /**
+     * @return The number of bytes in the chunk
+     */
+    public long getBytes() {
+        return this.bytes;
+    }
+
+    /**
+     * @return The number of values decoded from the chunk
+     */
+    public int getValues() {
+        return this.values;
+    }
+
+    /**
+     * @return The time spent decoding the chunk, in nanoseconds
+     */
+    public long getNanos() {
+        return this.nanos;
+    }
+
+    /**
+     * @return The bytes of the chunk decoded per second
+     */
+    public double getBytesPerSecond() {
+        return this.nanos == 0 ? 0 : this.bytes * 1_000_000_000.0 / this.nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("chunk %d: %d bytes at %d, %d values in %.3f ms (%.1f MB/s)",
+                this.index, this.bytes, this.offset, this.values, this.nanos / 1_000_000.0, getBytesPerSecond() / 1_000_000.0);
+    }
+}
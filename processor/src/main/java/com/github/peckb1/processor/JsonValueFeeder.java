@@ -0,0 +1,211 @@
+package com.github.peckb1.processor;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Reads JSON values separated by whitespace, such as newline delimited JSON, out of bytes fed in
+ * whatever pieces they arrive in, such as the reads off of a socket. Each value is handed to the
+ * consumer as soon as its last byte is fed, rather than once the whole message or stream is in.
+ * <p>
+ * The bytes are read by Jackson's non-blocking parser, which turns every byte fed into tokens
+ * before returning and keeps the state of a token cut off part way through, so the parsing of
+ * a value overlaps with its bytes arriving and the bytes are never held on to. The tokens of the
+ * value in progress are gathered in a {@link TokenBuffer}, and once its last token arrives the
+ * value is bound from them by the reader, the same way as from any other parser. So while no
+ * bytes are kept, the tokens of a single value are, and binding starts once the value is whole.
+ * <p>
+ * A value which can not be bound, or which the consumer throws on, does not stop the values after
+ * it. The rest of the bytes fed are still read, and the first error is thrown once they have been.
+ * Bytes which are not JSON mean the input can no longer be followed, so the feeder fails for good,
+ * throwing on anything fed afterwards.
+ * <p>
+ * Like a parser each feeder keeps the state of a single input, so it is not safe to feed from
+ * more than one thread at a time.
+ *
+ * @param <T> The type of the values read
+ */
+public final class JsonValueFeeder<T> {
+
+    private final ObjectReader reader;
+    private final Consumer<? super T> consumer;
+    private final JsonParser parser;
+    private final ByteArrayFeeder inputFeeder;
+
+    private TokenBuffer tokens;
+    private int depth = 0;
+    private boolean ended = false;
+    private boolean failed = false;
+
+    /**
+     * @param reader   A reader for the type of the values, from a mapper set up through {@code AutoJacksonSetup}
+     * @param consumer Given each value once all of its bytes have been fed
+     */
+    public JsonValueFeeder(ObjectReader reader, Consumer<? super T> consumer) {
+        this.reader = reader;
+        this.consumer = consumer;
+        try {
+            this.parser = reader.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        reader.getConfig().initialize(this.parser);
+        this.inputFeeder = (ByteArrayFeeder) this.parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * @param buffer The next bytes of the input
+     * @throws IOException If the input is not JSON, or a value could not be decoded
+     * @see #feedInput(byte[], int, int)
+     */
+    public void feedInput(byte[] buffer) throws IOException {
+        feedInput(buffer, 0, buffer.length);
+    }
+
+    /**
+     * Parses the bytes, decoding every value completed by them before returning. The bytes are
+     * not held on to once this returns, so the buffer can be reused for the next read.
+     *
+     * @param buffer The buffer holding the next bytes of the input
+     * @param offset Where the bytes start within the buffer
+     * @param length The number of bytes
+     * @throws IOException If the input is not JSON, after which nothing more can be fed, or a value
+     *                     could not be decoded, once the rest of the bytes have been read
+     */
+    public void feedInput(byte[] buffer, int offset, int length) throws IOException {
+        if (this.ended) {
+            throw new IllegalStateException("Input was fed after the end of the input");
+        }
+        if (this.failed) {
+            throw new IllegalStateException("Input was fed after the input could not be read");
+        }
+
+        this.inputFeeder.feedInput(buffer, offset, offset + length);
+        readTokens();
+    }
+
+    /**
+     * Feeds the remaining bytes of the buffer, moving its position to its limit.
+     *
+     * @param buffer The buffer holding the next bytes of the input
+     * @throws IOException If the input is not JSON, or a value could not be decoded
+     */
+    public void feedInput(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.hasArray()) {
+                feedInput(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            } else {
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.duplicate().get(bytes);
+                feedInput(bytes, 0, bytes.length);
+            }
+        } finally {
+            // the bytes after a value which could not be decoded have still been read
+            buffer.position(buffer.limit());
+        }
+    }
+
+    /**
+     * Marks the end of the input, after which nothing more can be fed. A number ending the input
+     * is only known to be whole once the input has ended, so is decoded here.
+     *
+     * @throws IOException If the input ended part way through a value, or the last value could not be decoded
+     */
+    public void endOfInput() throws IOException {
+        if (this.ended) {
+            return;
+        }
+        this.ended = true;
+        if (this.failed) {
+            return;
+        }
+        this.inputFeeder.endOfInput();
+        readTokens();
+        if (this.tokens != null) {
+            this.tokens = null;
+            throw new IOException("The input ended inside of a JSON value, " + this.depth + " levels deep");
+        }
+    }
+
+    /**
+     * Reads every token the bytes fed so far make up, decoding each value as its last token arrives
+     */
+    private void readTokens() throws IOException {
+        // the first value which could not be decoded, or which the consumer threw on
+        Exception valueError = null;
+
+        while (true) {
+            JsonToken token;
+            try {
+                token = this.parser.nextToken();
+            } catch (IOException | RuntimeException e) {
+                throw fail(e, valueError);
+            }
+            if (token == null || token == JsonToken.NOT_AVAILABLE) {
+                break;
+            }
+
+            if (this.tokens == null) {
+                this.tokens = new TokenBuffer(this.parser);
+            }
+            this.tokens.copyCurrentEvent(this.parser);
+            if (token.isStructStart()) {
+                this.depth++;
+            } else if (token.isStructEnd()) {
+                this.depth--;
+            }
+
+            if (this.depth == 0) {
+                try {
+                    complete();
+                } catch (IOException | RuntimeException e) {
+                    if (valueError == null) {
+                        valueError = e;
+                    } else {
+                        valueError.addSuppressed(e);
+                    }
+                }
+            }
+        }
+
+        if (valueError instanceof IOException) {
+            throw (IOException) valueError;
+        } else if (valueError != null) {
+            throw (RuntimeException) valueError;
+        }
+    }
+
+    /**
+     * Binds the value whose last token just arrived, letting go of its tokens whether or not it could be
+     */
+    private void complete() throws IOException {
+        TokenBuffer valueTokens = this.tokens;
+        this.tokens = null;
+        T value;
+        try (JsonParser valueParser = valueTokens.asParser(this.reader)) {
+            value = this.reader.readValue(valueParser);
+        }
+        this.consumer.accept(value);
+    }
+
+    /**
+     * Stops the feeder for good, as the input can no longer be followed
+     */
+    private IOException fail(Exception error, Exception valueError) {
+        this.failed = true;
+        this.tokens = null;
+        IOException failure = error instanceof IOException ? (IOException) error : new IOException(error);
+        if (valueError != null) {
+            failure.addSuppressed(valueError);
+        }
+        return failure;
+    }
+}
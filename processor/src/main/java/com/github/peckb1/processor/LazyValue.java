@@ -0,0 +1,239 @@
+package com.github.peckb1.processor;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.InjectableValues;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.DefaultDeserializationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * A property of an implementation class created for an interface annotated with
+ * {@link AutoJackson#lazy()}.
+ * <p>
+ * The value starts out as the encoded bytes of the property, copied from the JSON
+ * data while the parent object was read, straight out of the source when it is a
+ * {@code byte[]} and by copying its tokens otherwise, and is only decoded the first time it is
+ * asked for. Decoding happens at most once, after which the bytes are released and
+ * the decoded value is returned to every caller.
+ * <p>
+ * The value is decoded with the configuration of the read it was captured in, so the
+ * features, attributes, view and injectable values of an {@link com.fasterxml.jackson.databind.ObjectReader}
+ * apply to it just as they would have had it been decoded straight away.
+ *
+ * @param <T> The type of the property
+ */
+public final class LazyValue<T> {
+
+    private final ObjectCodec codec;
+    private final DefaultDeserializationContext context;
+    private final InjectableValues injectableValues;
+    private final JsonDeserializer<Object> deserializer;
+
+    private volatile byte[] encoded;
+    private T value;
+
+    private LazyValue(ObjectCodec codec, DefaultDeserializationContext context, InjectableValues injectableValues,
+                      JsonDeserializer<Object> deserializer, byte[] encoded, T value) {
+        this.codec = codec;
+        this.context = context;
+        this.injectableValues = injectableValues;
+        this.deserializer = deserializer;
+        this.encoded = encoded;
+        this.value = value;
+    }
+
+    /**
+     * @param value The already decoded value
+     * @param <T>   The type of the property
+     * @return A lazy value which has nothing left to decode
+     */
+    public static <T> LazyValue<T> of(T value) {
+        return new LazyValue<>(null, null, null, null, null, value);
+    }
+
+    /**
+     * Copies the value the parser is currently pointing at, including any nested objects or
+     * arrays, leaving the parser at the last token of the value.
+     *
+     * @param jsonParser   The parser pointing at the start of the value
+     * @param context      The context of the read, whose configuration the value is decoded with later on
+     * @param deserializer The deserializer resolved for the property, to decode the value with once it is needed
+     * @param <T>          The type of the property
+     * @return A lazy value holding the encoded bytes of the value
+     * @throws IOException If the value could not be read from the parser
+     */
+    public static <T> LazyValue<T> capture(JsonParser jsonParser, DeserializationContext context, JsonDeserializer<Object> deserializer) throws IOException {
+        ObjectCodec codec = jsonParser.getCodec();
+        if (codec == null) {
+            throw new IllegalStateException("A parser with an ObjectCodec is needed to read lazy values");
+        }
+
+        byte[] encoded = slice(jsonParser);
+        if (encoded == null) {
+            encoded = copy(jsonParser, codec.getFactory());
+        }
+        return new LazyValue<>(codec, decodingContext(context), injectableValues(context), deserializer, encoded, null);
+    }
+
+    /**
+     * An object or array read from a {@code byte[]} is already encoded in the source, between the byte
+     * offsets of its first and last tokens, so those bytes are copied over as they are.
+     *
+     * @return The bytes of the value, or null if the parser is not reading one straight from a {@code byte[]},
+     * in which case the parser has not moved
+     */
+    private static byte[] slice(JsonParser jsonParser) throws IOException {
+        JsonToken token = jsonParser.getCurrentToken();
+        if (token != JsonToken.START_OBJECT && token != JsonToken.START_ARRAY) {
+            return null;
+        }
+        JsonLocation start = jsonParser.getTokenLocation();
+        Object source = start.getSourceRef();
+        if (!(source instanceof byte[]) || start.getByteOffset() < 0) {
+            return null;
+        }
+
+        // the offsets of the parser are relative to where it started in the source, which
+        // only the unread input it hands back gives away
+        InputPosition position = new InputPosition();
+        jsonParser.releaseBuffered(position);
+        long from = position.offset - (jsonParser.getCurrentLocation().getByteOffset() - start.getByteOffset());
+        if (position.buffer != source || from < 0) {
+            return null;
+        }
+
+        jsonParser.skipChildren();
+        long to = from + jsonParser.getCurrentLocation().getByteOffset() - start.getByteOffset();
+        return Arrays.copyOfRange(position.buffer, (int) from, (int) to);
+    }
+
+    /**
+     * Writes the tokens of the value back out, for any source the parser may be reading from.
+     */
+    private static byte[] copy(JsonParser jsonParser, JsonFactory factory) throws IOException {
+        try (ByteArrayBuilder bytes = new ByteArrayBuilder();
+             JsonGenerator generator = factory.createGenerator(bytes, JsonEncoding.UTF8)) {
+            generator.copyCurrentStructure(jsonParser);
+            generator.flush();
+            return bytes.toByteArray();
+        }
+    }
+
+    /**
+     * The context of the read holds on to its parser, so a copy without one is kept instead. The copy
+     * is shared by every value captured during the same read, through an attribute of the read.
+     */
+    private static DefaultDeserializationContext decodingContext(DeserializationContext context) {
+        DefaultDeserializationContext decodingContext = (DefaultDeserializationContext) context.getAttribute(LazyValue.class);
+        if (decodingContext == null) {
+            if (!(context instanceof DefaultDeserializationContext)) {
+                throw new IllegalStateException("A DefaultDeserializationContext is needed to read lazy values");
+            }
+            decodingContext = ((DefaultDeserializationContext) context).createInstance(context.getConfig(), null, null);
+            context.setAttribute(LazyValue.class, decodingContext);
+        }
+        return decodingContext;
+    }
+
+    /**
+     * Only the context of the read knows the injectable values of the read, so they are looked up through it,
+     * sharing them between the values captured during the same read the same way as the decoding context.
+     */
+    private static InjectableValues injectableValues(DeserializationContext context) {
+        InjectableValues injectableValues = (InjectableValues) context.getAttribute(ReadInjectableValues.class);
+        if (injectableValues == null) {
+            injectableValues = new ReadInjectableValues(context);
+            context.setAttribute(ReadInjectableValues.class, injectableValues);
+        }
+        return injectableValues;
+    }
+
+    /**
+     * @return The decoded value, decoding it first if this is the first call
+     * @throws UncheckedIOException If the captured bytes could not be decoded
+     */
+    public T get() {
+        if (this.encoded == null) {
+            return this.value;
+        }
+        synchronized (this) {
+            byte[] pending = this.encoded;
+            if (pending != null) {
+                this.value = decode(pending);
+                // the volatile write publishes the value to the unsynchronized read above
+                this.encoded = null;
+            }
+            return this.value;
+        }
+    }
+
+    /**
+     * Decodes the bytes the same way an {@link com.fasterxml.jackson.databind.ObjectReader} binds a value,
+     * using a new context for the captured configuration
+     */
+    @SuppressWarnings("unchecked")
+    private T decode(byte[] pending) {
+        DeserializationConfig config = this.context.getConfig();
+        try (JsonParser jsonParser = this.codec.getFactory().createParser(pending)) {
+            jsonParser.setCodec(this.codec);
+            config.initialize(jsonParser);
+            DefaultDeserializationContext context = this.context.createInstance(config, jsonParser, this.injectableValues);
+            JsonToken token = jsonParser.nextToken();
+            return (T) (token == JsonToken.VALUE_NULL ? this.deserializer.getNullValue(context) : this.deserializer.deserialize(jsonParser, context));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The injectable values of the read a value was captured in.
+     */
+    private static final class ReadInjectableValues extends InjectableValues {
+
+        private final DeserializationContext context;
+
+        private ReadInjectableValues(DeserializationContext context) {
+            this.context = context;
+        }
+
+        @Override
+        public Object findInjectableValue(Object valueId, DeserializationContext context, BeanProperty forProperty, Object beanInstance) throws JsonMappingException {
+            return this.context.findInjectableValue(valueId, forProperty, beanInstance);
+        }
+    }
+
+    /**
+     * Takes note of the buffer and offset of the unread input of a parser, without copying any of it.
+     */
+    private static final class InputPosition extends OutputStream {
+
+        private byte[] buffer;
+        private int offset;
+
+        @Override
+        public void write(int b) {
+            // only whole buffers are handed over
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            this.buffer = buffer;
+            this.offset = offset;
+        }
+    }
+}
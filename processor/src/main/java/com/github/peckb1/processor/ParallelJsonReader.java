@@ -0,0 +1,484 @@
+package com.github.peckb1.processor;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads large files of JSON values by memory mapping the file, splitting it into chunks,
+ * and decoding those chunks in parallel on a {@link ForkJoinPool}. Files can either hold
+ * newline delimited values, or a single top level array.
+ * <p>
+ * Only a few chunks per thread of the pool are decoded ahead of the values being consumed,
+ * so memory stays bounded however large the file is. Like an {@link ObjectReader} each
+ * instance is immutable, with the {@code with} methods returning a new reader.
+ *
+ * @param <T> The type of the values read
+ */
+public final class ParallelJsonReader<T> {
+
+    private static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final int CHUNKS_PER_THREAD = 2;
+
+    private final ObjectReader reader;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final Consumer<ChunkReport> reporter;
+
+    /**
+     * @param reader A reader for the type of the values, from a mapper set up through {@code AutoJacksonSetup}
+     */
+    public ParallelJsonReader(ObjectReader reader) {
+        this(reader, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE, report -> { });
+    }
+
+    private ParallelJsonReader(ObjectReader reader, ForkJoinPool pool, int chunkSize, Consumer<ChunkReport> reporter) {
+        this.reader = reader;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.reporter = reporter;
+    }
+
+    /**
+     * @param pool The pool to decode chunks on, defaulting to the common pool
+     * @return A reader decoding on the given pool
+     */
+    public ParallelJsonReader<T> withPool(ForkJoinPool pool) {
+        return new ParallelJsonReader<>(this.reader, pool, this.chunkSize, this.reporter);
+    }
+
+    /**
+     * @param chunkSize The number of bytes to aim for in each chunk, defaulting to 4MB. Chunks
+     *                  grow past this size when needed to end on a value boundary.
+     * @return A reader splitting files into chunks of the given size
+     */
+    public ParallelJsonReader<T> withChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("The chunk size must be positive, not " + chunkSize);
+        }
+        return new ParallelJsonReader<>(this.reader, this.pool, chunkSize, this.reporter);
+    }
+
+    /**
+     * @param reporter Called from the pool with a report of each chunk once it has been decoded
+     * @return A reader reporting on each chunk to the given consumer
+     */
+    public ParallelJsonReader<T> withReporter(Consumer<ChunkReport> reporter) {
+        return new ParallelJsonReader<>(this.reader, this.pool, this.chunkSize, reporter);
+    }
+
+    /**
+     * Reads a file of newline delimited JSON values, splitting it into chunks on line endings.
+     *
+     * @param path    The file to read
+     * @param ordered Whether the values need to come back in the order of the file. When not
+     *                ordered, the values of each chunk are handed out as soon as it is decoded.
+     * @return The values of the file, which must be closed to release the file once done with
+     * @throws IOException If the file could not be opened
+     */
+    public Stream<T> readLines(Path path, boolean ordered) throws IOException {
+        return read(path, ordered, LineChunkSource::new);
+    }
+
+    /**
+     * Reads a file holding a single top level JSON array, splitting it into chunks between
+     * the elements of that array.
+     *
+     * @param path    The file to read
+     * @param ordered Whether the values need to come back in the order of the file. When not
+     *                ordered, the values of each chunk are handed out as soon as it is decoded.
+     * @return The elements of the array, which must be closed to release the file once done with
+     * @throws IOException If the file could not be opened, or does not start with an array
+     */
+    public Stream<T> readArray(Path path, boolean ordered) throws IOException {
+        return read(path, ordered, ArrayChunkSource::new);
+    }
+
+    private Stream<T> read(Path path, boolean ordered, ChunkSourceFactory chunkSourceFactory) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ChunkIterator values = new ChunkIterator(chunkSourceFactory.create(channel, this.chunkSize), ordered);
+            int characteristics = ordered ? Spliterator.ORDERED | Spliterator.NONNULL : Spliterator.NONNULL;
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(values, characteristics), false)
+                    .onClose(() -> {
+                        values.cancel();
+                        try {
+                            channel.close();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Decodes every value of a single chunk, using a parser of its own.
+     */
+    private List<T> decode(Chunk chunk) {
+        long start = System.nanoTime();
+        List<T> values = new ArrayList<>();
+        try (MappingIterator<T> iterator = this.reader.readValues(chunk.input)) {
+            while (iterator.hasNextValue()) {
+                values.add(iterator.nextValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.reporter.accept(new ChunkReport(chunk.index, chunk.offset, chunk.bytes, values.size(), System.nanoTime() - start));
+        return values;
+    }
+
+    /**
+     * Hands out the decoded values, keeping a limited number of chunks being decoded ahead.
+     */
+    private final class ChunkIterator implements Iterator<T> {
+
+        private final ChunkSource chunkSource;
+        private final boolean ordered;
+        private final int window;
+        private final Deque<CompletableFuture<List<T>>> pending = new ArrayDeque<>();
+        private final BlockingQueue<CompletableFuture<List<T>>> completed = new LinkedBlockingQueue<>();
+
+        private Iterator<T> current = Collections.emptyIterator();
+        private boolean exhausted = false;
+
+        ChunkIterator(ChunkSource chunkSource, boolean ordered) {
+            this.chunkSource = chunkSource;
+            this.ordered = ordered;
+            this.window = ParallelJsonReader.this.pool.getParallelism() * CHUNKS_PER_THREAD;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!this.current.hasNext()) {
+                submitChunks();
+                if (this.pending.isEmpty()) {
+                    return false;
+                }
+                this.current = join(nextFinished()).iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return this.current.next();
+        }
+
+        void cancel() {
+            this.exhausted = true;
+            this.pending.forEach(future -> future.cancel(false));
+            this.pending.clear();
+        }
+
+        private void submitChunks() {
+            try {
+                while (!this.exhausted && this.pending.size() < this.window) {
+                    Chunk chunk = this.chunkSource.next();
+                    if (chunk == null) {
+                        this.exhausted = true;
+                    } else {
+                        CompletableFuture<List<T>> future = CompletableFuture.supplyAsync(() -> decode(chunk), ParallelJsonReader.this.pool);
+                        if (!this.ordered) {
+                            future.whenComplete((values, failure) -> this.completed.add(future));
+                        }
+                        this.pending.add(future);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private CompletableFuture<List<T>> nextFinished() {
+            if (this.ordered) {
+                return this.pending.removeFirst();
+            }
+            try {
+                CompletableFuture<List<T>> future = this.completed.take();
+                this.pending.remove(future);
+                return future;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a chunk to be decoded", e);
+            }
+        }
+
+        private List<T> join(CompletableFuture<List<T>> future) {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * A region of the file holding whole values.
+     */
+    private static final class Chunk {
+        private final int index;
+        private final long offset;
+        private final long bytes;
+        private final InputStream input;
+
+        Chunk(int index, long offset, long bytes, InputStream input) {
+            this.index = index;
+            this.offset = offset;
+            this.bytes = bytes;
+            this.input = input;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkSourceFactory {
+        ChunkSource create(FileChannel channel, int chunkSize) throws IOException;
+    }
+
+    /**
+     * Splits a file into chunks, one at a time as they are needed.
+     */
+    private interface ChunkSource {
+        /**
+         * @return The next chunk of the file, or null once the whole file has been handed out
+         */
+        Chunk next() throws IOException;
+    }
+
+    /**
+     * Splits a file of newline delimited values just after the last line ending of each chunk,
+     * growing the chunk whenever a single line is longer than the chunk size.
+     */
+    private static final class LineChunkSource implements ChunkSource {
+
+        private final FileChannel channel;
+        private final int chunkSize;
+        private final long size;
+
+        private long position = 0;
+        private int index = 0;
+
+        LineChunkSource(FileChannel channel, int chunkSize) throws IOException {
+            this.channel = channel;
+            this.chunkSize = chunkSize;
+            this.size = channel.size();
+        }
+
+        @Override
+        public Chunk next() throws IOException {
+            long remaining = this.size - this.position;
+            if (remaining <= 0) {
+                return null;
+            }
+
+            long length = Math.min(this.chunkSize, remaining);
+            while (true) {
+                MappedByteBuffer buffer = this.channel.map(MapMode.READ_ONLY, this.position, length);
+                int end = length == remaining ? (int) length : lastLineEnd(buffer);
+                if (end > 0) {
+                    buffer.limit(end);
+                    Chunk chunk = new Chunk(this.index++, this.position, end, new ByteBufferBackedInputStream(buffer));
+                    this.position += end;
+                    return chunk;
+                }
+                if (length >= Integer.MAX_VALUE) {
+                    throw new IOException("A line starting at " + this.position + " is too long to be mapped");
+                }
+                length = Math.min(Math.min(length * 2, Integer.MAX_VALUE), remaining);
+            }
+        }
+
+        private static int lastLineEnd(ByteBuffer buffer) {
+            for (int i = buffer.limit() - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return i + 1;
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Splits a file holding one top level array between its elements. Each chunk is found by
+     * scanning the bytes for the last comma of the chunk directly inside of the array, keeping
+     * track of strings, escapes and nesting along the way. While inside of a string the scan
+     * looks at eight bytes at a time, skipping ahead whenever none of them are a quote or
+     * backslash. The elements of a chunk are decoded by wrapping them in brackets again.
+     */
+    private static final class ArrayChunkSource implements ChunkSource {
+
+        private static final long ONES = 0x0101010101010101L;
+        private static final long HIGHS = 0x8080808080808080L;
+        private static final long QUOTES = 0x2222222222222222L;
+        private static final long BACKSLASHES = 0x5C5C5C5C5C5C5C5CL;
+        private static final byte[] OPEN = {'['};
+        private static final byte[] CLOSE = {']'};
+
+        private final FileChannel channel;
+        private final int chunkSize;
+        private final long size;
+
+        private long position;
+        private int index = 0;
+        private boolean finished = false;
+
+        ArrayChunkSource(FileChannel channel, int chunkSize) throws IOException {
+            this.channel = channel;
+            this.chunkSize = chunkSize;
+            this.size = channel.size();
+            this.position = arrayStart();
+        }
+
+        @Override
+        public Chunk next() throws IOException {
+            if (this.finished) {
+                return null;
+            }
+
+            long remaining = this.size - this.position;
+            long length = Math.min(this.chunkSize, remaining);
+            while (true) {
+                MappedByteBuffer buffer = this.channel.map(MapMode.READ_ONLY, this.position, length);
+                int end = lastBoundary(buffer);
+                if (end >= 0) {
+                    this.finished = buffer.get(end) == ']';
+                    buffer.limit(end);
+                    InputStream elements = new SequenceInputStream(Collections.enumeration(Arrays.asList(
+                            new ByteArrayInputStream(OPEN), new ByteBufferBackedInputStream(buffer), new ByteArrayInputStream(CLOSE))));
+                    Chunk chunk = new Chunk(this.index++, this.position, end, elements);
+                    this.position += end + 1;
+                    return chunk;
+                }
+                if (length == remaining) {
+                    throw new IOException("The array starting before " + this.position + " is never closed");
+                }
+                if (length >= Integer.MAX_VALUE) {
+                    throw new IOException("An element starting at " + this.position + " is too long to be mapped");
+                }
+                length = Math.min(Math.min(length * 2, Integer.MAX_VALUE), remaining);
+            }
+        }
+
+        /**
+         * @return The position just after the opening bracket of the array
+         */
+        private long arrayStart() throws IOException {
+            ByteBuffer buffer = this.channel.map(MapMode.READ_ONLY, 0, Math.min(this.size, this.chunkSize));
+            for (int i = 0; i < buffer.limit(); i++) {
+                byte b = buffer.get(i);
+                if (b == '[') {
+                    return i + 1;
+                } else if (!Character.isWhitespace(b)) {
+                    break;
+                }
+            }
+            throw new IOException("Expected the file to hold a top level JSON array");
+        }
+
+        /**
+         * @return The position of the closing bracket of the array, or else of the last comma
+         * between two elements, or -1 if the buffer holds neither
+         */
+        private static int lastBoundary(ByteBuffer buffer) {
+            int limit = buffer.limit();
+            int depth = 0;
+            boolean inString = false;
+            int boundary = -1;
+
+            int i = 0;
+            while (i < limit) {
+                if (inString) {
+                    while (i + Long.BYTES <= limit && !hasStringByte(buffer.getLong(i))) {
+                        i += Long.BYTES;
+                    }
+                    if (i < limit) {
+                        byte b = buffer.get(i);
+                        if (b == '\\') {
+                            i++;
+                        } else if (b == '"') {
+                            inString = false;
+                        }
+                        i++;
+                    }
+                    continue;
+                }
+
+                switch (buffer.get(i)) {
+                    case '"':
+                        inString = true;
+                        break;
+                    case '[':
+                    case '{':
+                        depth++;
+                        break;
+                    case ']':
+                    case '}':
+                        if (depth == 0) {
+                            return i;
+                        }
+                        depth--;
+                        break;
+                    case ',':
+                        if (depth == 0) {
+                            boundary = i;
+                        }
+                        break;
+                    default:
+                        break;
+                }
+                i++;
+            }
+            return boundary;
+        }
+
+        /**
+         * @return Whether any of the eight bytes of the word are a quote or a backslash
+         */
+        private static boolean hasStringByte(long word) {
+            return hasZeroByte(word ^ QUOTES) || hasZeroByte(word ^ BACKSLASHES);
+        }
+
+        private static boolean hasZeroByte(long word) {
+            return ((word - ONES) & ~word & HIGHS) != 0;
+        }
+    }
+}
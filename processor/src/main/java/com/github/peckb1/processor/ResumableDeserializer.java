@@ -0,0 +1,27 @@
+package com.github.peckb1.processor;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+import java.io.IOException;
+
+/**
+ * A deserializer able to pick up reading an object part way through, implemented by the streaming
+ * deserializers of simple {@link AutoJackson} interfaces.
+ * <p>
+ * When the type property of an interface with an {@link AutoJackson#type()} is the first property
+ * of the object, the deserializer of that interface has read nothing else by the time it knows the
+ * type. So it hands the parser over as is, rather than replaying the object through a buffer.
+ *
+ * @param <T> The type of the objects read
+ */
+public interface ResumableDeserializer<T> {
+
+    /**
+     * @param jsonParser The parser, pointing at the value of a property of the object, where the current name is that of the property
+     * @param context    The context of the deserialization
+     * @return The object, read from the value of the current property through to the end of the object
+     * @throws IOException If the object could not be read
+     */
+    T deserializeFromValue(JsonParser jsonParser, DeserializationContext context) throws IOException;
+}
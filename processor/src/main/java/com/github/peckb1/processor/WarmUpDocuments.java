@@ -0,0 +1,62 @@
+package com.github.peckb1.processor;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The documents used to warm up each {@link AutoJackson} interface. Each generated deserializer
+ * knows a minimal valid value for every property of its interface, apart from the properties made
+ * up of other interfaces, which it asks for here. So a document reaches as deep into the model
+ * as the interfaces do, and an interface with a type property is warmed up with the document
+ * of the type its first enum constant names.
+ * <p>
+ * An interface holding itself, directly or through others, gets {@code null} where it would
+ * otherwise repeat, so every document is finite.
+ */
+public final class WarmUpDocuments {
+
+    private static final String NULL_DOCUMENT = "null";
+
+    private final Map<Class<?>, Function<WarmUpDocuments, String>> sources = new HashMap<>();
+    private final Map<Class<?>, String> documents = new HashMap<>();
+    private final Set<Class<?>> building = new HashSet<>();
+
+    /**
+     * @param type   The interface
+     * @param source Creates the document of the interface, asking for the documents of any interfaces it holds
+     * @return this, to add the next interface with
+     */
+    public WarmUpDocuments add(Class<?> type, Function<WarmUpDocuments, String> source) {
+        this.sources.put(type, source);
+        return this;
+    }
+
+    /**
+     * @param type The interface
+     * @return The document of the interface, or {@code null} as JSON if the interface is unknown,
+     * or is already being created further up
+     */
+    public String of(Class<?> type) {
+        String document = this.documents.get(type);
+        if (document != null) {
+            return document;
+        }
+        Function<WarmUpDocuments, String> source = this.sources.get(type);
+        if (source == null || !this.building.add(type)) {
+            return NULL_DOCUMENT;
+        }
+        try {
+            document = source.apply(this);
+        } finally {
+            this.building.remove(type);
+        }
+        // a document created further down may hold nulls in place of the interfaces above it
+        if (this.building.isEmpty()) {
+            this.documents.put(type, document);
+        }
+        return document;
+    }
+}
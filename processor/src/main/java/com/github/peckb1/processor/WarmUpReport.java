@@ -0,0 +1,67 @@
+package com.github.peckb1.processor;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+import java.util.Optional;
+
+/**
+ * The work done warming up a single {@link AutoJackson} interface, through the
+ * {@code warmUp} method of the generated {@code AutoJacksonSetup} class.
+ */
+public final class WarmUpReport {
+
+    private final JavaType type;
+    private final long resolveNanos;
+    private final long roundTripNanos;
+    private final Throwable failure;
+
+    WarmUpReport(JavaType type, long resolveNanos, long roundTripNanos, Throwable failure) {
+        this.type = type;
+        this.resolveNanos = resolveNanos;
+        this.roundTripNanos = roundTripNanos;
+        this.failure = failure;
+    }
+
+    /**
+     * @return The interface warmed up
+     */
+    public Class<?> getType() {
+        return this.type.getRawClass();
+    }
+
+    /**
+     * @return The interface warmed up, along with the type arguments it was warmed up for
+     */
+    public JavaType getJavaType() {
+        return this.type;
+    }
+
+    /**
+     * @return The time spent looking up the serializer and deserializer of the interface, in nanoseconds
+     */
+    public long getResolveNanos() {
+        return this.resolveNanos;
+    }
+
+    /**
+     * @return The time spent reading and writing a document of the interface, in nanoseconds,
+     * or zero if no round trip was made
+     */
+    public long getRoundTripNanos() {
+        return this.roundTripNanos;
+    }
+
+    /**
+     * @return The reason warming up the interface failed, if it did
+     */
+    public Optional<Throwable> getFailure() {
+        return Optional.ofNullable(this.failure);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: resolved in %.3f ms, round trip in %.3f ms%s",
+                this.type.toCanonical(), this.resolveNanos / 1_000_000.0, this.roundTripNanos / 1_000_000.0,
+                this.failure == null ? "" : ", failed with " + this.failure);
+    }
+}
@@ -1,30 +1,59 @@
 package com.github.peckb1.processor.util;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.util.JsonParserSequence;
+import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
 import com.fasterxml.jackson.databind.exc.InvalidTypeIdException;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.github.peckb1.processor.AutoJacksonTypeClass;
+import com.github.peckb1.processor.AutoJacksonTypeIds;
+import com.github.peckb1.processor.ResumableDeserializer;
+import com.github.peckb1.processor.WarmUpDocuments;
 import com.google.common.collect.ImmutableList;
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.MethodSpec.Builder;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
 import com.github.peckb1.processor.AutoJackson;
 
-import javax.annotation.processing.Filer;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class ComplexDeserializerCreator extends DeserializerCreator {
 
-    public ComplexDeserializerCreator(Types typeUtils, Elements elementUtils, Filer filer, ProcessorUtil processorUtil) {
-        super(typeUtils, elementUtils, filer, processorUtil);
+    private static final String TOKEN_VARIABLE_NAME = "token";
+    private static final String TYPE_DESERIALIZERS_FIELD_NAME = "typeDeserializers";
+    private static final String FIND_TYPE_DESERIALIZER_METHOD_NAME = "findTypeDeserializer";
+    private static final String REPLAY_METHOD_NAME = "replay";
+
+    private final Map<TypeElement, DeserializationConstructs> constructsByType = new HashMap<>();
+
+    public ComplexDeserializerCreator(Types typeUtils, Elements elementUtils, SourceWriter sourceWriter, ProcessorUtil processorUtil) {
+        super(typeUtils, elementUtils, sourceWriter, processorUtil);
     }
 
     @Override
@@ -33,6 +62,7 @@ public class ComplexDeserializerCreator extends DeserializerCreator {
         if (!constructs.isPresent()) {
             return deserializeMethodBuilder.addStatement("return null").build();
         }
+        this.constructsByType.put(typeElement, constructs.get());
 
         TypeElement enumTypeElement = constructs.get().getEnumTypeElement();
         ImmutableList<Element> enumValueElements = constructs.get().getEnumValueElements();
@@ -41,6 +71,168 @@ public class ComplexDeserializerCreator extends DeserializerCreator {
 
         String memberVariableName = this.processorUtil.createMemberVariableName(enumValueAccessorMethod);
 
+        if (typeElement.getAnnotation(AutoJackson.class).streaming()) {
+            return implementStreamingDeserializeMethod(typeElement, deserializeMethodBuilder, enumTypeElement, memberVariableName);
+        } else {
+            return implementTreeDeserializeMethod(deserializeMethodBuilder, enumTypeElement,
+                    enumValueElements, enumInstanceAccessorMethod, memberVariableName);
+        }
+    }
+
+    /**
+     * Implements the deserialize method reading the fields of the JSON object until the type
+     * property is found. When the type property is the first field the parser is handed straight
+     * to the deserializer of the matching type, through {@link ResumableDeserializer} when it can
+     * pick up from the value of the type property. Otherwise any fields before the type property
+     * are copied into a {@link TokenBuffer}, which is then replayed, followed by the rest of the
+     * object, to the deserializer of the matching type.
+     */
+    private MethodSpec implementStreamingDeserializeMethod(TypeElement typeElement,
+                                                           Builder deserializeMethodBuilder,
+                                                           TypeElement enumTypeElement,
+                                                           String memberVariableName) {
+        TypeName returnType = TypeName.get(this.typeUtils.getDeclaredType(typeElement));
+
+        return deserializeMethodBuilder.addStatement("$T $L = $L.getCurrentToken()", JsonToken.class, TOKEN_VARIABLE_NAME, JSON_PARSER_PARAMETER_NAME)
+                .beginControlFlow("if ($L == $T.$L)", TOKEN_VARIABLE_NAME, JsonToken.class, JsonToken.START_OBJECT)
+                .addStatement("$L = $L.nextToken()", TOKEN_VARIABLE_NAME, JSON_PARSER_PARAMETER_NAME)
+                .nextControlFlow("else if ($L != $T.$L)", TOKEN_VARIABLE_NAME, JsonToken.class, JsonToken.FIELD_NAME)
+                .addStatement("return ($T) $L.handleUnexpectedToken(handledType(), $L)", returnType, DESERIALIZATION_CONTEXT_PARAMETER_NAME, JSON_PARSER_PARAMETER_NAME)
+                .endControlFlow()
+                .addStatement("$T buffer = null", TokenBuffer.class)
+                .beginControlFlow("for (; $L == $T.$L; $L = $L.nextToken())", TOKEN_VARIABLE_NAME, JsonToken.class, JsonToken.FIELD_NAME, TOKEN_VARIABLE_NAME, JSON_PARSER_PARAMETER_NAME)
+                .addStatement("$T fieldName = $L.getCurrentName()", String.class, JSON_PARSER_PARAMETER_NAME)
+                .addStatement("$L.nextToken()", JSON_PARSER_PARAMETER_NAME)
+                .beginControlFlow("if ($S.equals(fieldName))", memberVariableName)
+                .addStatement("$T typeDeserializer = $L($L, $L)", ParameterizedTypeName.get(JsonDeserializer.class, Object.class),
+                        FIND_TYPE_DESERIALIZER_METHOD_NAME, JSON_PARSER_PARAMETER_NAME, DESERIALIZATION_CONTEXT_PARAMETER_NAME)
+                .beginControlFlow("if (buffer == null && typeDeserializer instanceof $T)", ResumableDeserializer.class)
+                .addComment("nothing came before the type, so the rest of the object is read straight from the parser")
+                .addStatement("return ($T) (($T<?>) typeDeserializer).deserializeFromValue($L, $L)",
+                        returnType, ResumableDeserializer.class, JSON_PARSER_PARAMETER_NAME, DESERIALIZATION_CONTEXT_PARAMETER_NAME)
+                .endControlFlow()
+                .addStatement("return ($T) typeDeserializer.deserialize($L(buffer, $L, $L), $L)", returnType, REPLAY_METHOD_NAME,
+                        JSON_PARSER_PARAMETER_NAME, DESERIALIZATION_CONTEXT_PARAMETER_NAME, DESERIALIZATION_CONTEXT_PARAMETER_NAME)
+                .endControlFlow()
+                .beginControlFlow("if (buffer == null)")
+                .addStatement("buffer = new $T($L, $L)", TokenBuffer.class, JSON_PARSER_PARAMETER_NAME, DESERIALIZATION_CONTEXT_PARAMETER_NAME)
+                .addStatement("buffer.writeStartObject()")
+                .endControlFlow()
+                .addStatement("buffer.writeFieldName(fieldName)")
+                .addStatement("buffer.copyCurrentStructure($L)", JSON_PARSER_PARAMETER_NAME)
+                .endControlFlow()
+                .addStatement("$T javaType = $L.constructType($T.class)", JavaType.class, DESERIALIZATION_CONTEXT_PARAMETER_NAME, enumTypeElement)
+                .addStatement("throw new $T($L, \"$L not present\", javaType, null)", InvalidTypeIdException.class, JSON_PARSER_PARAMETER_NAME, memberVariableName)
+                .build();
+    }
+
+    /**
+     * The streaming deserializer looks up the deserializer of each type once, when it is resolved,
+     * and keeps them in an array indexed by the ordinal of the matching enum constant. Alongside
+     * sit the methods picking the deserializer for the type property, and replaying the fields
+     * buffered ahead of it.
+     */
+    @Override
+    protected void addDeserializerMembers(TypeElement typeElement, TypeSpec.Builder deserializationClassBuilder) {
+        DeserializationConstructs constructs = this.constructsByType.get(typeElement);
+        if (constructs == null) {
+            return;
+        }
+        addWarmUpJson(constructs, deserializationClassBuilder);
+        if (!typeElement.getAnnotation(AutoJackson.class).streaming()) {
+            return;
+        }
+
+        TypeElement enumTypeElement = constructs.getEnumTypeElement();
+        ImmutableList<Element> enumValueElements = constructs.getEnumValueElements();
+        ExecutableElement enumInstanceAccessorMethod = constructs.getEnumInstanceAccessorMethod();
+        String memberVariableName = this.processorUtil.createMemberVariableName(constructs.getEnumValueAccessorMethod());
+        ParameterizedTypeName deserializerType = ParameterizedTypeName.get(JsonDeserializer.class, Object.class);
+
+        MethodSpec.Builder findTypeDeserializerMethodBuilder = MethodSpec.methodBuilder(FIND_TYPE_DESERIALIZER_METHOD_NAME)
+                .addModifiers(Modifier.PRIVATE)
+                .returns(deserializerType)
+                .addParameter(JsonParser.class, JSON_PARSER_PARAMETER_NAME)
+                .addParameter(DeserializationContext.class, DESERIALIZATION_CONTEXT_PARAMETER_NAME)
+                .addException(IOException.class)
+                .addStatement("$T typeId = $L.getValueAsString($S)", String.class, JSON_PARSER_PARAMETER_NAME, "");
+        addTypeSwitch(findTypeDeserializerMethodBuilder, enumTypeElement, enumValueElements, memberVariableName, type ->
+                CodeBlock.of("return this.$L[$L.ordinal()]", TYPE_DESERIALIZERS_FIELD_NAME, type));
+
+        MethodSpec replayMethod = MethodSpec.methodBuilder(REPLAY_METHOD_NAME)
+                .addJavadoc("Replays the fields seen before the type property, then the type property, and then continues on with the rest of the object\n")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(JsonParser.class)
+                .addParameter(TokenBuffer.class, "buffer")
+                .addParameter(JsonParser.class, JSON_PARSER_PARAMETER_NAME)
+                .addParameter(DeserializationContext.class, DESERIALIZATION_CONTEXT_PARAMETER_NAME)
+                .addException(IOException.class)
+                .beginControlFlow("if (buffer == null)")
+                .addStatement("buffer = new $T($L, $L)", TokenBuffer.class, JSON_PARSER_PARAMETER_NAME, DESERIALIZATION_CONTEXT_PARAMETER_NAME)
+                .addStatement("buffer.writeStartObject()")
+                .endControlFlow()
+                .addStatement("buffer.writeFieldName($S)", memberVariableName)
+                .addStatement("buffer.copyCurrentStructure($L)", JSON_PARSER_PARAMETER_NAME)
+                .addStatement("$T typeParser = $T.createFlattened(false, buffer.asParser($L), $L)",
+                        JsonParser.class, JsonParserSequence.class, JSON_PARSER_PARAMETER_NAME, JSON_PARSER_PARAMETER_NAME)
+                .addStatement("typeParser.nextToken()")
+                .addStatement("return typeParser")
+                .build();
+
+        deserializationClassBuilder.addField(FieldSpec.builder(ArrayTypeName.of(deserializerType),
+                TYPE_DESERIALIZERS_FIELD_NAME, Modifier.PRIVATE, Modifier.FINAL)
+                .addAnnotation(AnnotationSpec.builder(SuppressWarnings.class).addMember("value", "$S", "unchecked").build())
+                .initializer("new $T[$L]", JsonDeserializer.class, constructs.getEnumValueElements().size())
+                .build());
+
+        MethodSpec resolveMethod = MethodSpec.methodBuilder("resolve")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(DeserializationContext.class, DESERIALIZATION_CONTEXT_PARAMETER_NAME)
+                .addException(JsonMappingException.class)
+                .beginControlFlow("for ($T type : $T.values())", enumTypeElement, enumTypeElement)
+                .addStatement("$T javaType = $L.constructType(type.$L())", JavaType.class, DESERIALIZATION_CONTEXT_PARAMETER_NAME, enumInstanceAccessorMethod.getSimpleName())
+                .addStatement("this.$L[type.ordinal()] = $L.findRootValueDeserializer(javaType)", TYPE_DESERIALIZERS_FIELD_NAME, DESERIALIZATION_CONTEXT_PARAMETER_NAME)
+                .endControlFlow()
+                .build();
+
+        deserializationClassBuilder.addSuperinterface(ResolvableDeserializer.class)
+                .addMethod(findTypeDeserializerMethodBuilder.build())
+                .addMethod(replayMethod)
+                .addMethod(resolveMethod)
+                .addMethod(MethodSpec.methodBuilder("isCachable")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(TypeName.BOOLEAN)
+                        .addStatement("return true")
+                        .build());
+    }
+
+    /**
+     * Adds the method creating the document the setup class warms up the interface with, which is
+     * the document of the type named by the first enum constant. The documents of the types give
+     * their type property that same first constant, so the document reads back as that type.
+     */
+    private void addWarmUpJson(DeserializationConstructs constructs, TypeSpec.Builder deserializationClassBuilder) {
+        deserializationClassBuilder.addMethod(MethodSpec.methodBuilder(WARM_UP_JSON_METHOD_NAME)
+                .addJavadoc("@return A document of the first type, used to warm up reading and writing the interface\n")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(String.class)
+                .addParameter(WarmUpDocuments.class, WARM_UP_DOCUMENTS_PARAMETER_NAME)
+                .addStatement("return $L.of($T.$L.$L())", WARM_UP_DOCUMENTS_PARAMETER_NAME, constructs.getEnumTypeElement(),
+                        constructs.getEnumValueElements().get(0).getSimpleName(), constructs.getEnumInstanceAccessorMethod().getSimpleName())
+                .build());
+    }
+
+    /**
+     * Implements the deserialize method by reading the full JSON object into a tree, and then
+     * converting that tree into the type given by the type property.
+     */
+    private MethodSpec implementTreeDeserializeMethod(Builder deserializeMethodBuilder,
+                                                      TypeElement enumTypeElement,
+                                                      ImmutableList<Element> enumValueElements,
+                                                      ExecutableElement enumInstanceAccessorMethod,
+                                                      String memberVariableName) {
         deserializeMethodBuilder.addStatement("$T codec = $L.getCodec()", ObjectCodec.class, JSON_PARSER_PARAMETER_NAME)
                 .addStatement("$T rootNode = codec.readTree($L)", JsonNode.class, JSON_PARSER_PARAMETER_NAME)
                 .addStatement("$T typeNode = rootNode.get($S)", JsonNode.class, memberVariableName)
@@ -48,19 +240,49 @@ public class ComplexDeserializerCreator extends DeserializerCreator {
                 .addStatement("$T javaType = $L.constructType($T.class)", JavaType.class, DESERIALIZATION_CONTEXT_PARAMETER_NAME, enumTypeElement)
                 .addStatement("throw new $T($L, \"$L not present\", javaType, null)", InvalidTypeIdException.class, JSON_PARSER_PARAMETER_NAME, memberVariableName)
                 .endControlFlow()
-                .addStatement("$T type = codec.treeToValue(typeNode, $T.$L)", enumTypeElement, enumTypeElement, "class")
-                .beginControlFlow("switch (type)");
+                .addStatement("$T typeId = typeNode.asText()", String.class);
+
+        addTypeSwitch(deserializeMethodBuilder, enumTypeElement, enumValueElements, memberVariableName, type ->
+                CodeBlock.of("return codec.treeToValue(rootNode, $L.$L())", type, enumInstanceAccessorMethod.getSimpleName()));
+
+        return deserializeMethodBuilder.build();
+    }
+
+    /**
+     * Adds a switch over the {@code typeId} variable, with a case for the JSON name of each enum constant.
+     * This avoids asking Jackson to convert the type property into the enum for every object read, since
+     * all of the possible names are already known while processing. Any other name ends up in the default
+     * case, which asks Jackson after all through {@link AutoJacksonTypeIds}, so features such as case
+     * insensitive enums still apply, and reports an {@link InvalidTypeIdException} if that fails too.
+     *
+     * @param deserializeMethodBuilder The method to add the switch to
+     * @param enumTypeElement          The enum used as the type property
+     * @param enumValueElements        The constants of the enum
+     * @param memberVariableName       The JSON name of the type property
+     * @param typeStatement            Creates the statement for the type given by an expression of the enum
+     */
+    private void addTypeSwitch(Builder deserializeMethodBuilder,
+                               TypeElement enumTypeElement,
+                               ImmutableList<Element> enumValueElements,
+                               String memberVariableName,
+                               Function<CodeBlock, CodeBlock> typeStatement) {
+        deserializeMethodBuilder.beginControlFlow("switch (typeId)");
 
         enumValueElements.forEach(enumValueElement -> deserializeMethodBuilder
-                .beginControlFlow("case $L:", enumValueElement)
-                .addStatement("return codec.treeToValue(rootNode, $T.$L.$L)", enumTypeElement, enumValueElement, enumInstanceAccessorMethod)
+                .beginControlFlow("case $S:", this.processorUtil.loadEnumValueName(enumValueElement))
+                .addStatement("$L", typeStatement.apply(CodeBlock.of("$T.$L", enumTypeElement, enumValueElement.getSimpleName())))
                 .endControlFlow());
 
-        return deserializeMethodBuilder.beginControlFlow("default :")
-                .addStatement("return null")
+        deserializeMethodBuilder.beginControlFlow("default :")
+                .addStatement("$T type = $T.find($L, $L, $T.class, typeId)", enumTypeElement, AutoJacksonTypeIds.class,
+                        JSON_PARSER_PARAMETER_NAME, DESERIALIZATION_CONTEXT_PARAMETER_NAME, enumTypeElement)
+                .beginControlFlow("if (type != null)")
+                .addStatement("$L", typeStatement.apply(CodeBlock.of("type")))
                 .endControlFlow()
+                .addStatement("$T javaType = $L.constructType($T.class)", JavaType.class, DESERIALIZATION_CONTEXT_PARAMETER_NAME, enumTypeElement)
+                .addStatement("throw new $T($L, \"Unknown $L '\" + typeId + \"'\", javaType, typeId)", InvalidTypeIdException.class, JSON_PARSER_PARAMETER_NAME, memberVariableName)
                 .endControlFlow()
-                .build();
+                .endControlFlow();
     }
 
     /**
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 import com.github.peckb1.processor.AutoJackson;
 import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.MethodSpec.Builder;
@@ -14,7 +15,6 @@ import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 
-import javax.annotation.processing.Filer;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.Name;
 import javax.lang.model.element.PackageElement;
@@ -36,17 +36,19 @@ public abstract class DeserializerCreator {
     final static String DESERIALIZER_CLASS_NAME_SUFFIX = "_AutoJacksonDeserializer";
     final static String JSON_PARSER_PARAMETER_NAME = "jsonParser";
     final static String DESERIALIZATION_CONTEXT_PARAMETER_NAME = "context";
+    final static String WARM_UP_JSON_METHOD_NAME = "warmUpJson";
+    final static String WARM_UP_DOCUMENTS_PARAMETER_NAME = "documents";
 
     final Types typeUtils;
     final ProcessorUtil processorUtil;
 
     private final Elements elementUtils;
-    private final Filer filer;
+    private final SourceWriter sourceWriter;
 
-    DeserializerCreator(Types typeUtils, Elements elementUtils, Filer filer, ProcessorUtil processorUtil) {
+    DeserializerCreator(Types typeUtils, Elements elementUtils, SourceWriter sourceWriter, ProcessorUtil processorUtil) {
         this.typeUtils = typeUtils;
         this.elementUtils = elementUtils;
-        this.filer = filer;
+        this.sourceWriter = sourceWriter;
         this.processorUtil = processorUtil;
     }
 
@@ -67,16 +69,7 @@ public abstract class DeserializerCreator {
         TypeName deserializerType = TypeName.get(declaredType);
         ParameterizedTypeName parameterizedDeserializer = ParameterizedTypeName.get(stdDeserializer, deserializerType);
 
-        MethodSpec.Builder constructorBuilder = MethodSpec.constructorBuilder().addModifiers(Modifier.PUBLIC);
-        // since Generics don't work when calling .class, check if there are type parameters
-        if (typeElement.getTypeParameters().isEmpty()) {
-            // if not we can use $T
-            constructorBuilder.addStatement("super($T.class)", typeElement);
-        } else {
-            // if so, we need to use the fully qualified name and $L
-            constructorBuilder.addStatement("super($L.class)", typeElement.getQualifiedName());
-        }
-        MethodSpec constructor = constructorBuilder.build();
+        MethodSpec constructor = createConstructor(typeElement);
 
         ParameterSpec jsonParserParameter = ParameterSpec.builder(JsonParser.class, JSON_PARSER_PARAMETER_NAME)
                 .build();
@@ -94,13 +87,17 @@ public abstract class DeserializerCreator {
 
         MethodSpec deserializeMethod = implementDeserializeMethod(typeElement, deserializeMethodBuilder);
 
-        TypeSpec deserializationClass = TypeSpec
+        TypeSpec.Builder deserializationClassBuilder = TypeSpec
                 .classBuilder(className + DESERIALIZER_CLASS_NAME_SUFFIX)
+                .addOriginatingElement(typeElement)
                 .superclass(parameterizedDeserializer)
                 .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
                 .addMethod(constructor)
-                .addMethod(deserializeMethod)
-                .build();
+                .addMethod(deserializeMethod);
+
+        addDeserializerMembers(typeElement, deserializationClassBuilder);
+
+        TypeSpec deserializationClass = deserializationClassBuilder.build();
 
         PackageElement packageElement = this.elementUtils.getPackageOf(typeElement);
         JavaFile javaFile = JavaFile
@@ -109,12 +106,48 @@ public abstract class DeserializerCreator {
 
         // and write that file to disc
         try {
-            javaFile.writeTo(this.filer);
+            this.sourceWriter.write(javaFile);
         } catch (IOException e) {
             this.processorUtil.error(typeElement, e.getMessage());
         }
     }
 
+    /**
+     * Creates the public constructor Jackson uses, handing the interface to the parent deserializer.
+     * Subclasses needing more than one constructor can replace it here and add the rest as members.
+     *
+     * @param typeElement The class needed to create an instance of
+     * @return The public constructor of the deserializer
+     */
+    protected MethodSpec createConstructor(TypeElement typeElement) {
+        return MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addStatement("super($L)", createInterfaceClass(typeElement))
+                .build();
+    }
+
+    /**
+     * @return The code for the class of the interface, such as {@code Sample.class}
+     */
+    CodeBlock createInterfaceClass(TypeElement typeElement) {
+        // since Generics don't work when calling .class, check if there are type parameters
+        if (typeElement.getTypeParameters().isEmpty()) {
+            // if not we can use $T
+            return CodeBlock.of("$T.class", typeElement);
+        } else {
+            // if so, we need to use the fully qualified name and $L
+            return CodeBlock.of("$L.class", typeElement.getQualifiedName());
+        }
+    }
+
+    /**
+     * @return The name of the deserializer created for the interface
+     */
+    ClassName createDeserializerClassName(TypeElement typeElement) {
+        PackageElement packageElement = this.elementUtils.getPackageOf(typeElement);
+        return ClassName.get(packageElement.getQualifiedName().toString(), typeElement.getSimpleName() + DESERIALIZER_CLASS_NAME_SUFFIX);
+    }
+
     /**
      * Implement the logic for the deserialize method.
      * <p>
@@ -127,4 +160,17 @@ public abstract class DeserializerCreator {
      * @return A full method ready to be added to a class using JavaPoet
      */
     protected abstract MethodSpec implementDeserializeMethod(TypeElement typeElement, Builder deserializeMethodBuilder);
+
+    /**
+     * Add any additional fields or methods the deserialize method relies on.
+     * <p>
+     * By default nothing is added, subclasses needing to hold on to state (such as
+     * resolved deserializers for their properties) can add the members here.
+     *
+     * @param typeElement                 The class needed to create an instance of
+     * @param deserializationClassBuilder The class builder already containing the constructor and deserialize method
+     */
+    protected void addDeserializerMembers(TypeElement typeElement, TypeSpec.Builder deserializationClassBuilder) {
+        // nothing needed by default
+    }
 }
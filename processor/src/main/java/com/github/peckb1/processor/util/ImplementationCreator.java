@@ -1,40 +1,43 @@
 package com.github.peckb1.processor.util;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.github.peckb1.processor.AutoJackson;
+import com.github.peckb1.processor.LazyValue;
 import com.google.common.base.CaseFormat;
 import com.squareup.javapoet.AnnotationSpec;
 import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 import com.squareup.javapoet.TypeVariableName;
 
-import javax.annotation.processing.Filer;
-import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.Name;
 import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.TypeParameterElement;
-import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.type.TypeVariable;
 import javax.lang.model.util.Elements;
-import javax.lang.model.util.Types;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -42,21 +45,30 @@ import java.util.stream.Stream;
  * A creator which implements interfaces annotated with {@link AutoJackson}
  * with the needed Jackson annotations to facilitate serialization and deserialization
  * through an {@link com.fasterxml.jackson.databind.ObjectMapper}
+ * <p>
+ * When {@link AutoJackson#compact()} is set the implementation class packs its
+ * properties into fewer, smaller fields, while the accessors keep returning the
+ * same values. When {@link AutoJackson#lazy()} is set any nested objects or arrays
+ * are held as a {@link LazyValue}, only decoded when first asked for.
  */
 public class ImplementationCreator {
 
     final static String CLASS_IMPLEMENTATION_NAME_SUFFIX = "_AutoJacksonImpl";
 
-    private final Types typeUtils;
+    private static final String FLAGS_VARIABLE_NAME = "autoJacksonFlags";
+    private static final String VALUE_BIT_SUFFIX = "_BIT";
+    private static final String PRESENT_BIT_SUFFIX = "_PRESENT_BIT";
+
     private final Elements elementUtils;
-    private final Filer filer;
+    private final SourceWriter sourceWriter;
     private final ProcessorUtil processorUtil;
+    private final MethodDetailLoader methodDetailLoader;
 
-    public ImplementationCreator(Types typeUtils, Elements elementUtils, Filer filer, ProcessorUtil processorUtil) {
-        this.typeUtils = typeUtils;
+    public ImplementationCreator(Elements elementUtils, SourceWriter sourceWriter, ProcessorUtil processorUtil, MethodDetailLoader methodDetailLoader) {
         this.elementUtils = elementUtils;
-        this.filer = filer;
+        this.sourceWriter = sourceWriter;
         this.processorUtil = processorUtil;
+        this.methodDetailLoader = methodDetailLoader;
     }
 
     /**
@@ -86,48 +98,117 @@ public class ImplementationCreator {
         // create our base class to populate with defails
         TypeSpec.Builder classBuilder = TypeSpec
                 .classBuilder(className + CLASS_IMPLEMENTATION_NAME_SUFFIX)
+                .addOriginatingElement(typeElement)
                 .addSuperinterface(ClassName.get(typeElement))
                 .addAnnotation(nonEmptyJsonAnnotation)
                 .addTypeVariables(typeVariableNames)
                 .addModifiers(Modifier.PUBLIC, Modifier.FINAL);
 
-        // create our base constructor
-        MethodSpec.Builder constructorBuilder = MethodSpec.constructorBuilder()
+        // start adding all methods from our list, and our parents list(s)
+        Set<MethodDetail> methods = this.methodDetailLoader.loadMethodDetails(typeElement);
+        boolean lazy = methods.stream().anyMatch(methodDetail -> this.processorUtil.isLazy(typeElement, methodDetail.getReturnType()));
+        boolean compact = typeElement.getAnnotation(AutoJackson.class).compact();
+
+        // when the fields no longer match the properties, the accessors carry the annotations instead
+        boolean annotateAccessors = compact || lazy;
+
+        // create our base constructor, which when any properties are lazy is only used by our deserializer
+        // with the public constructor taking the decoded values and delegating to it. The public one is
+        // marked as the creator, as Jackson no longer picks a constructor with a single property on its own
+        MethodSpec.Builder constructorBuilder = MethodSpec.constructorBuilder();
+        MethodSpec.Builder delegatingConstructorBuilder = MethodSpec.constructorBuilder()
+                .addAnnotation(JsonCreator.class)
                 .addModifiers(Modifier.PUBLIC);
+        List<CodeBlock> delegatingArguments = new ArrayList<>();
+        if (!lazy) {
+            constructorBuilder.addAnnotation(JsonCreator.class).addModifiers(Modifier.PUBLIC);
+        }
+
+        Map<MethodDetail, CompactProperty> compactProperties = compact
+                ? planCompactLayout(methods.stream().filter(methodDetail -> !this.processorUtil.isLazy(typeElement, methodDetail.getReturnType())))
+                : Collections.emptyMap();
+        int bitsUsed = compactProperties.values().stream().mapToInt(CompactProperty::getBitsUsed).sum();
+        TypeName flagsType = bitsUsed > Integer.SIZE ? TypeName.LONG : TypeName.INT;
+        if (bitsUsed > 0) {
+            constructorBuilder.addStatement("$T $L = 0", flagsType, FLAGS_VARIABLE_NAME);
+        }
 
-        // start adding all methods from our list, and our parents list(s)
-        Set<MethodDetail> methods = loadMethodDetails(typeElement);
         methods.forEach(methodDetail -> {
             // for each accessor method we need to create, let's populate our class
             ExecutableElement method = methodDetail.getElement();
-            TypeMirror returnType = methodDetail.getDifferentReturnType().orElse(method.getReturnType());
+            TypeMirror returnType = methodDetail.getReturnType();
             TypeName returnTypeName = ClassName.get(returnType);
             String memberVariableName = this.processorUtil.createMemberVariableName(method);
             String constantName = CaseFormat.LOWER_CAMEL.to(CaseFormat.UPPER_UNDERSCORE, memberVariableName);
+            boolean lazyProperty = this.processorUtil.isLazy(typeElement, returnType);
 
             // create the annotation used by our constructor parameter and member variable
             AnnotationSpec jsonPropertyAnnotation = createJsonPropertyAnnotation(returnType, constantName);
 
-            // add the actual method itself
-            classBuilder.addMethod(MethodSpec.overriding(method)
-                    .returns(TypeName.get(returnType))
-                    .addStatement("return $L", memberVariableName)
-                    .build());
-            // create the field that the method will return
-            classBuilder.addField(FieldSpec.builder(returnTypeName, memberVariableName, Modifier.PRIVATE, Modifier.FINAL)
-                    .addAnnotation(jsonPropertyAnnotation)
-                    .build());
             // create the constant used by our annotations
             classBuilder.addField(FieldSpec.builder(String.class, constantName, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
                     .initializer("$S", memberVariableName)
                     .build());
+
             // add a parameter to our constructor which sets our new field, for our new method
-            constructorBuilder.addStatement("this.$L = $L", memberVariableName, memberVariableName);
-            constructorBuilder.addParameter(ParameterSpec.builder(returnTypeName, memberVariableName)
+            ParameterSpec parameter = ParameterSpec.builder(returnTypeName, memberVariableName)
                     .addAnnotation(jsonPropertyAnnotation)
-                    .build());
+                    .build();
+            if (lazy) {
+                TypeName lazyTypeName = ParameterizedTypeName.get(ClassName.get(LazyValue.class), returnTypeName.box());
+                delegatingConstructorBuilder.addParameter(parameter);
+                delegatingArguments.add(lazyProperty
+                        ? CodeBlock.of("$T.of($L)", LazyValue.class, memberVariableName)
+                        : CodeBlock.of("$L", memberVariableName));
+                constructorBuilder.addParameter(lazyProperty ? lazyTypeName : returnTypeName, memberVariableName);
+            } else {
+                constructorBuilder.addParameter(parameter);
+            }
+
+            MethodSpec.Builder accessorBuilder = MethodSpec.overriding(method)
+                    .returns(TypeName.get(returnType));
+            if (annotateAccessors) {
+                accessorBuilder.addAnnotation(jsonPropertyAnnotation);
+            }
+
+            CompactProperty compactProperty = compactProperties.get(methodDetail);
+            if (lazyProperty) {
+                TypeName lazyTypeName = ParameterizedTypeName.get(ClassName.get(LazyValue.class), returnTypeName.box());
+                classBuilder.addField(FieldSpec.builder(lazyTypeName, memberVariableName, Modifier.PRIVATE, Modifier.FINAL).build());
+                constructorBuilder.addStatement("this.$L = $L", memberVariableName, memberVariableName);
+                accessorBuilder.addStatement("return $L.get()", memberVariableName);
+            } else if (compactProperty != null) {
+                addCompactProperty(classBuilder, constructorBuilder, accessorBuilder, compactProperty, memberVariableName, constantName, flagsType);
+            } else {
+                // create the field that the method will return
+                FieldSpec.Builder fieldBuilder = FieldSpec.builder(returnTypeName, memberVariableName, Modifier.PRIVATE, Modifier.FINAL);
+                if (!annotateAccessors) {
+                    fieldBuilder.addAnnotation(jsonPropertyAnnotation);
+                }
+                classBuilder.addField(fieldBuilder.build());
+                constructorBuilder.addStatement("this.$L = $L", memberVariableName, memberVariableName);
+                accessorBuilder.addStatement("return $L", memberVariableName);
+            }
+
+            // add the actual method itself
+            classBuilder.addMethod(accessorBuilder.build());
         });
 
+        if (bitsUsed > 0) {
+            classBuilder.addField(FieldSpec.builder(flagsType, FLAGS_VARIABLE_NAME, Modifier.PRIVATE, Modifier.FINAL).build());
+            constructorBuilder.addStatement("this.$L = $L", FLAGS_VARIABLE_NAME, FLAGS_VARIABLE_NAME);
+        }
+
+        if (lazy) {
+            CodeBlock.Builder arguments = CodeBlock.builder();
+            for (int i = 0; i < delegatingArguments.size(); i++) {
+                arguments.add(i == 0 ? "$L" : ", $L", delegatingArguments.get(i));
+            }
+            classBuilder.addMethod(delegatingConstructorBuilder
+                    .addStatement("this($L)", arguments.build())
+                    .build());
+        }
+
         TypeSpec typeSpec = classBuilder.addMethod(constructorBuilder.build()).build();
 
         PackageElement packageElement = this.elementUtils.getPackageOf(typeElement);
@@ -136,187 +217,177 @@ public class ImplementationCreator {
                 .build();
 
         try {
-            javaFile.writeTo(this.filer);
+            this.sourceWriter.write(javaFile);
         } catch (IOException e) {
             this.processorUtil.error(typeElement, e.getMessage());
         }
     }
 
     /**
-     * Loads all method details; from the original type element, and any parent inferfaces
-     * up the chain which have methods we need to implement as well
+     * Works out which properties can be held in a more compact form, and which bits
+     * of the flags field each of those properties use. Properties which do not fit
+     * into the 64 bits available are held as is.
      *
-     * @param typeElement The type element of the class being implemented
-     * @return A set of method details for all methods we need to implement
+     * @param methods The methods being implemented
+     * @return The compact form of each property that has one
      */
-    private Set<MethodDetail> loadMethodDetails(TypeElement typeElement) {
-        Set<MethodDetail> methodDetails = new TreeSet<>();
-
-        // load the methods as part of this type element
-        loadMethods(typeElement)
-                .filter(this::isValidMethod)
-                .forEach(method -> methodDetails.add(new MethodDetail(method)));
+    private Map<MethodDetail, CompactProperty> planCompactLayout(Stream<MethodDetail> methods) {
+        Map<MethodDetail, CompactProperty> compactProperties = new HashMap<>();
+        int nextBit = 0;
+        for (MethodDetail methodDetail : (Iterable<MethodDetail>) methods::iterator) {
+            TypeMirror returnType = methodDetail.getReturnType();
+            TypeName typeName = TypeName.get(returnType);
+
+            if (this.processorUtil.isOptional(returnType) && returnType.getKind() == TypeKind.DECLARED) {
+                List<? extends TypeMirror> typeArguments = ((DeclaredType) returnType).getTypeArguments();
+                if (typeArguments.size() == 1 && typeArguments.get(0).getKind() != TypeKind.WILDCARD) {
+                    compactProperties.put(methodDetail, new CompactProperty(CompactKind.OPTIONAL, TypeName.get(typeArguments.get(0)), -1, -1));
+                }
+                continue;
+            }
 
-        // and check for methods from our parent
-        typeElement.getInterfaces().stream()
-                .filter(tm -> tm.getKind() == TypeKind.DECLARED)
-                .map(this::loadParentMethodDetails)
-                .forEach(details -> details.forEach(methodDetails::add));
+            CompactKind kind;
+            if (typeName.equals(TypeName.BOOLEAN)) {
+                kind = CompactKind.BOOLEAN;
+            } else if (typeName.equals(TypeName.BOOLEAN.box())) {
+                kind = CompactKind.BOXED_BOOLEAN;
+            } else if (typeName.isBoxedPrimitive()) {
+                kind = CompactKind.BOXED_PRIMITIVE;
+            } else {
+                continue;
+            }
 
-        return methodDetails;
+            int bitsNeeded = kind == CompactKind.BOXED_BOOLEAN ? 2 : 1;
+            if (nextBit + bitsNeeded > Long.SIZE) {
+                continue;
+            }
+            int valueBit = kind == CompactKind.BOXED_PRIMITIVE ? -1 : nextBit++;
+            int presentBit = kind == CompactKind.BOOLEAN ? -1 : nextBit++;
+            compactProperties.put(methodDetail, new CompactProperty(kind, typeName.unbox(), valueBit, presentBit));
+        }
+        return compactProperties;
     }
 
     /**
-     * Loads all methods details ... but this time from only parent interfaces.
-     * <p>
-     * We split the parent from the base class when checking for methods due to generics.
-     * <p>
-     * If the base class has generics we're going to be looking only at the classes type parameters itself.
-     * However if a parent interface has types, we need to check the order of how we define those types, and
-     * use the correct return type.
-     * <p>
-     * For instance, in the following example we would need to know how Gobo and Wembley are implementing
-     * the {@code getMuppeteer()} method.
-     * <pre>
-     * {@code @AutoJackson()
-     *   public interface Fraggle<M extends Muppeteer> {
-     *     M getMuppeteer();
-     *   }
-     * }
-     *
-     * {@code @AutoJackson()
-     *   public interface Wembley { }
-     * }
-     *
-     * {@code @AutoJackson()
-     *   public interface Gobo<JerryNelson> { }
-     * }
-     * </pre>
-     * <p>
-     * After generation of the Impl files we would have
-     * <pre>
-     *  // inside Gobo_AutoJacksonImpl
-     * {@code @Override
-     *  public JerryNelson getMuppeteer() {
-     *      return muppeteer;
-     *  }
-     * }
-     *
-     *  // inside Wembley_AutoJacksonImpl
-     * {@code @Override
-     *  public Muppeteer getMuppeteer() {
-     *      return muppeteer;
-     *  }
-     * }
-     * </pre>
-     *
-     * @param mirror The type mirror of our parent interface
-     * @return A set of method details belonging to this item (and my parents)
+     * Adds the field, constructor statements, and accessor body for a property held in a compact form
      */
-    private Set<MethodDetail> loadParentMethodDetails(TypeMirror mirror) {
-        Set<MethodDetail> methodDetails = new TreeSet<>();
-
-        // swap the types of our mirror so we can load our data
-        DeclaredType declaredType = (DeclaredType) mirror;
-        TypeElement typeElement = (TypeElement) (declaredType).asElement();
-
-        // load the methods as part of this type element
-        loadMethods(typeElement)
-                .filter(this::isValidMethod)
-                .forEach(method -> methodDetails.add(checkParentMethod(declaredType, method)));
-
-        // and check for methods from our parent
-        typeElement.getInterfaces().stream()
-                .filter(tm -> tm.getKind() == TypeKind.DECLARED)
-                .map(this::loadParentMethodDetails)
-                .forEach(details -> details.forEach(methodDetails::add));
+    private void addCompactProperty(TypeSpec.Builder classBuilder,
+                                    MethodSpec.Builder constructorBuilder,
+                                    MethodSpec.Builder accessorBuilder,
+                                    CompactProperty compactProperty,
+                                    String memberVariableName,
+                                    String constantName,
+                                    TypeName flagsType) {
+        String valueBitName = constantName + VALUE_BIT_SUFFIX;
+        String presentBitName = constantName + PRESENT_BIT_SUFFIX;
+        String one = flagsType.equals(TypeName.LONG) ? "1L" : "1";
+        if (compactProperty.getValueBit() >= 0) {
+            classBuilder.addField(FieldSpec.builder(flagsType, valueBitName, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("$L << $L", one, compactProperty.getValueBit())
+                    .build());
+        }
+        if (compactProperty.getPresentBit() >= 0) {
+            classBuilder.addField(FieldSpec.builder(flagsType, presentBitName, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("$L << $L", one, compactProperty.getPresentBit())
+                    .build());
+        }
 
-        return methodDetails;
+        switch (compactProperty.getKind()) {
+            case OPTIONAL:
+                classBuilder.addField(FieldSpec.builder(compactProperty.getFieldType(), memberVariableName, Modifier.PRIVATE, Modifier.FINAL).build());
+                constructorBuilder.addStatement("this.$L = $L == null ? null : $L.orElse(null)", memberVariableName, memberVariableName, memberVariableName);
+                accessorBuilder.addStatement("return $T.ofNullable($L)", Optional.class, memberVariableName);
+                break;
+            case BOOLEAN:
+                constructorBuilder.beginControlFlow("if ($L)", memberVariableName)
+                        .addStatement("$L |= $L", FLAGS_VARIABLE_NAME, valueBitName)
+                        .endControlFlow();
+                accessorBuilder.addStatement("return ($L & $L) != 0", FLAGS_VARIABLE_NAME, valueBitName);
+                break;
+            case BOXED_BOOLEAN:
+                constructorBuilder.beginControlFlow("if ($L != null)", memberVariableName)
+                        .addStatement("$L |= $L", FLAGS_VARIABLE_NAME, presentBitName)
+                        .beginControlFlow("if ($L)", memberVariableName)
+                        .addStatement("$L |= $L", FLAGS_VARIABLE_NAME, valueBitName)
+                        .endControlFlow()
+                        .endControlFlow();
+                accessorBuilder.addStatement("return ($L & $L) == 0 ? null : $T.valueOf(($L & $L) != 0)",
+                        FLAGS_VARIABLE_NAME, presentBitName, Boolean.class, FLAGS_VARIABLE_NAME, valueBitName);
+                break;
+            case BOXED_PRIMITIVE:
+                classBuilder.addField(FieldSpec.builder(compactProperty.getFieldType(), memberVariableName, Modifier.PRIVATE, Modifier.FINAL).build());
+                constructorBuilder.addStatement("this.$L = $L == null ? 0 : $L", memberVariableName, memberVariableName, memberVariableName)
+                        .beginControlFlow("if ($L != null)", memberVariableName)
+                        .addStatement("$L |= $L", FLAGS_VARIABLE_NAME, presentBitName)
+                        .endControlFlow();
+                accessorBuilder.addStatement("return ($L & $L) == 0 ? null : $T.valueOf($L)",
+                        FLAGS_VARIABLE_NAME, presentBitName, compactProperty.getFieldType().box(), memberVariableName);
+                break;
+        }
     }
 
     /**
-     * A Helper method for {@link #loadMethodDetails(TypeElement)} which does the hard work of actually
-     * checking the types for the parents.
+     * Creates the {@link JsonProperty} annotation to apply to a parameter, or member variable
      *
-     * @param declaredType The DeclaredType object for the interface which has the method
-     * @param method       The method checking for types on
-     * @return A method detail, either with the Generic return type, or the default return type
+     * @param returnType   The return type of the item (to check for {@link java.util.Optional})
+     * @param constantName The name of the constant which holds our {@link JsonProperty#value()}
+     * @return An Annotation that can be applied using JavaPoet
      */
-    private MethodDetail checkParentMethod(DeclaredType declaredType, ExecutableElement method) {
-        // check to see if we have any type parameters at all, if we don't then we can just create
-        // the standard method
-        TypeElement typeElement = (TypeElement) (declaredType).asElement();
-        List<? extends TypeParameterElement> typeParameters = typeElement.getTypeParameters();
-        if (typeParameters.isEmpty()) {
-            new MethodDetail(method);
-        }
-
-        // otherwise we need to check if our return type is actually one of our generic parameters
-        // first we need to check if our method return type matches one of our Type Parameters
-        Optional<? extends TypeParameterElement> element = typeParameters.stream()
-                .filter(parameterElement -> parameterElement.asType().getKind().equals(method.getReturnType().getKind()))
-                .findFirst();
-
-        return element.map(matchingType -> {
-            final List<? extends TypeMirror> typeArguments = declaredType.getTypeArguments();
-            final int parameterIndex = typeParameters.indexOf(matchingType);
-            final TypeMirror returnType;
+    private AnnotationSpec createJsonPropertyAnnotation(TypeMirror returnType, String constantName) {
+        AnnotationSpec.Builder builder = AnnotationSpec.builder(JsonProperty.class).addMember("value", constantName);
 
-            if (typeArguments.size() > parameterIndex) {
-                returnType = typeArguments.get(parameterIndex);
-            } else {
-                returnType = ((TypeVariable) matchingType.asType()).getUpperBound();
-            }
+        if (!this.processorUtil.isOptional(returnType)) {
+            builder.addMember("required", "true");
+        }
 
-            return new MethodDetail(method, Optional.of(returnType));
-        }).orElse(new MethodDetail(method));
+        return builder.build();
     }
 
     /**
-     * A quick method that loads methods from a given TypeElement
+     * The ways a property can be held by a compact implementation class
      */
-    private Stream<ExecutableElement> loadMethods(TypeElement typeElement) {
-        return typeElement.getEnclosedElements().stream()
-                .filter(e -> e.getKind() == ElementKind.METHOD)
-                .map(e -> (ExecutableElement) e);
+    private enum CompactKind {
+        OPTIONAL,
+        BOOLEAN,
+        BOXED_BOOLEAN,
+        BOXED_PRIMITIVE
     }
 
     /**
-     * @return true if it is a valid method to inplement, false otherwise
+     * How a single property is held by a compact implementation class
      */
-    private boolean isValidMethod(ExecutableElement method) {
-        boolean error = true;
-        List<? extends VariableElement> methodParameters = method.getParameters();
-        if (!methodParameters.isEmpty()) {
-            this.processorUtil.error(method, "Methods inside AutoJackson classes should not have method parameters.");
-            error = false;
+    private static class CompactProperty {
+
+        private final CompactKind kind;
+        private final TypeName fieldType;
+        private final int valueBit;
+        private final int presentBit;
+
+        private CompactProperty(CompactKind kind, TypeName fieldType, int valueBit, int presentBit) {
+            this.kind = kind;
+            this.fieldType = fieldType;
+            this.valueBit = valueBit;
+            this.presentBit = presentBit;
         }
-        List<? extends TypeParameterElement> methodTypeParameters = method.getTypeParameters();
-        if (!methodTypeParameters.isEmpty()) {
-            this.processorUtil.error(method, "Methods inside AutoJackson methods should not have type parameters.");
-            error = false;
+
+        private CompactKind getKind() {
+            return this.kind;
         }
-        return error;
-    }
 
-    /**
-     * Creates the {@link JsonProperty} annotation to apply to a parameter, or member variable
-     *
-     * @param returnType   The return type of the item (to check for {@link Optional})
-     * @param constantName The name of the constant which holds our {@link JsonProperty#value()}
-     * @return An Annotation that can be applied using JavaPoet
-     */
-    private AnnotationSpec createJsonPropertyAnnotation(TypeMirror returnType, String constantName) {
-        TypeMirror optional = this.elementUtils.getTypeElement(Optional.class.getCanonicalName()).asType();
-        TypeMirror erasure = this.typeUtils.erasure(returnType);
-        boolean optionalItem = this.typeUtils.isAssignable(optional, erasure);
+        private TypeName getFieldType() {
+            return this.fieldType;
+        }
 
-        AnnotationSpec.Builder builder = AnnotationSpec.builder(JsonProperty.class).addMember("value", constantName);
+        private int getValueBit() {
+            return this.valueBit;
+        }
 
-        if (!optionalItem) {
-            builder.addMember("required", "true");
+        private int getPresentBit() {
+            return this.presentBit;
         }
 
-        return builder.build();
+        private int getBitsUsed() {
+            return (this.valueBit >= 0 ? 1 : 0) + (this.presentBit >= 0 ? 1 : 0);
+        }
     }
 }
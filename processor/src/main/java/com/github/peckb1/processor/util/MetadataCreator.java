@@ -0,0 +1,128 @@
+package com.github.peckb1.processor.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.github.peckb1.processor.AutoJackson;
+import com.google.common.collect.ImmutableList;
+import com.squareup.javapoet.ClassName;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.TypeElement;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.peckb1.processor.util.DeserializerCreator.DESERIALIZER_CLASS_NAME_SUFFIX;
+import static com.github.peckb1.processor.util.ReaderCreator.READER_CLASS_NAME_SUFFIX;
+import static com.github.peckb1.processor.util.SerializerCreator.SERIALIZER_CLASS_NAME_SUFFIX;
+
+/**
+ * Creates the metadata ahead of time compilers and class data sharing need to know
+ * about the classes created for every {@link AutoJackson} interface.
+ * <p>
+ * Jackson only reaches the implementation classes through reflection, so a
+ * {@code reflect-config.json} is written under {@code META-INF/native-image}, where
+ * GraalVM's {@code native-image} picks it up from the class path. A class list is also
+ * written under {@value #CLASS_LIST_DIRECTORY}, one class per line in the form
+ * {@code -XX:SharedClassListFile} expects, for creating an AppCDS archive holding the
+ * interfaces and the classes created for them.
+ * <p>
+ * Both are written to a directory named after the fully qualified name of the generated module,
+ * which no two jars built with the processor share, so merging the jars onto one class path
+ * or into a single jar keeps the metadata of each.
+ */
+public class MetadataCreator {
+
+    public static final String CLASS_LIST_DIRECTORY = "META-INF/autojackson/";
+
+    private static final String NATIVE_IMAGE_DIRECTORY = "META-INF/native-image/autojackson/";
+    private static final String REFLECT_CONFIG_FILE = "reflect-config.json";
+    private static final String CLASS_LIST_FILE = "classlist";
+
+    private final Filer filer;
+    private final ProcessorUtil processorUtil;
+
+    public MetadataCreator(Filer filer, ProcessorUtil processorUtil) {
+        this.filer = filer;
+        this.processorUtil = processorUtil;
+    }
+
+    /**
+     * @param moduleClassName       The module created for the interfaces
+     * @param setupClassName        The setup class created for the interfaces
+     * @param interfaces            All of the interfaces which had a deserializer created for them
+     * @param implementedInterfaces The interfaces which also had an implementation class and serializer created
+     */
+    public void createMetadata(ClassName moduleClassName,
+                               ClassName setupClassName,
+                               ImmutableList<TypeElement> interfaces,
+                               ImmutableList<TypeElement> implementedInterfaces) {
+        List<ClassName> interfaceNames = new ArrayList<>();
+        List<ClassName> implementationNames = new ArrayList<>();
+        List<ClassName> generatedNames = new ArrayList<>();
+
+        interfaces.forEach(element -> {
+            ClassName interfaceName = ClassName.get(element);
+            interfaceNames.add(interfaceName);
+            if (implementedInterfaces.contains(element)) {
+                implementationNames.add(this.processorUtil.createImplementationClassName(element));
+                generatedNames.add(ClassName.get(interfaceName.packageName(), element.getSimpleName() + SERIALIZER_CLASS_NAME_SUFFIX));
+            }
+            generatedNames.add(ClassName.get(interfaceName.packageName(), element.getSimpleName() + DESERIALIZER_CLASS_NAME_SUFFIX));
+            generatedNames.add(ClassName.get(interfaceName.packageName(), element.getSimpleName() + READER_CLASS_NAME_SUFFIX));
+        });
+        generatedNames.add(moduleClassName);
+        generatedNames.add(setupClassName);
+        generatedNames.add(RegistryCreator.createRegistryClassName(moduleClassName));
+
+        String reflectConfigFile = NATIVE_IMAGE_DIRECTORY + moduleClassName.reflectionName() + "/" + REFLECT_CONFIG_FILE;
+        try (JsonGenerator generator = new JsonFactory().createGenerator(createResource(reflectConfigFile, interfaces))) {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartArray();
+            for (ClassName interfaceName : interfaceNames) {
+                // interfaces are only looked at for their annotations and accessors
+                writeReflectEntry(generator, interfaceName, "allPublicMethods");
+            }
+            for (ClassName implementationName : implementationNames) {
+                // Jackson creates the implementation classes through their constructors, and reads their fields
+                writeReflectEntry(generator, implementationName, "allDeclaredConstructors", "allDeclaredMethods", "allDeclaredFields");
+            }
+            for (ClassName generatedName : generatedNames) {
+                writeReflectEntry(generator, generatedName, "allDeclaredConstructors", "allPublicMethods");
+            }
+            generator.writeEndArray();
+        } catch (IOException e) {
+            this.processorUtil.error(null, e.getMessage());
+        }
+
+        String classListFile = CLASS_LIST_DIRECTORY + moduleClassName.reflectionName() + "/" + CLASS_LIST_FILE;
+        try (Writer writer = createResource(classListFile, interfaces)) {
+            for (List<ClassName> names : ImmutableList.of(interfaceNames, implementationNames, generatedNames)) {
+                for (ClassName name : names) {
+                    writer.write(name.reflectionName().replace('.', '/'));
+                    writer.write("\n");
+                }
+            }
+        } catch (IOException e) {
+            this.processorUtil.error(null, e.getMessage());
+        }
+    }
+
+    private Writer createResource(String name, ImmutableList<TypeElement> interfaces) throws IOException {
+        FileObject resource = this.filer.createResource(StandardLocation.CLASS_OUTPUT, "", name,
+                interfaces.toArray(new TypeElement[interfaces.size()]));
+        return resource.openWriter();
+    }
+
+    private static void writeReflectEntry(JsonGenerator generator, ClassName className, String... flags) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("name", className.reflectionName());
+        for (String flag : flags) {
+            generator.writeBooleanField(flag, true);
+        }
+        generator.writeEndObject();
+    }
+}
@@ -32,6 +32,13 @@ public class MethodDetail implements Comparable<MethodDetail> {
         return differentReturnType;
     }
 
+    /**
+     * @return the different return type if one was given, otherwise the return type of the method itself
+     */
+    TypeMirror getReturnType() {
+        return differentReturnType.orElse(element.getReturnType());
+    }
+
     @Override
     public int compareTo(MethodDetail o) {
         return this.element.getSimpleName().toString().compareTo(o.element.getSimpleName().toString());
@@ -0,0 +1,245 @@
+package com.github.peckb1.processor.util;
+
+import com.github.peckb1.processor.AutoJackson;
+
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Loads the accessor methods of interfaces annotated with {@link AutoJackson}, including
+ * those declared by any parent interfaces, so that the implementation class and the
+ * deserializer created for an interface agree on the same set of properties.
+ * <p>
+ * The details for each interface are only loaded once, which also means any errors
+ * about invalid methods are only reported a single time. The details of each parent
+ * interface, with its type arguments already substituted, are also kept so that
+ * interfaces sharing parents, or reaching the same parent through several paths,
+ * only walk that parent once. Everything loaded is dropped at the start of each
+ * round through {@link #startRound()}.
+ */
+public class MethodDetailLoader {
+
+    private final ProcessorUtil processorUtil;
+    private final Map<TypeElement, Set<MethodDetail>> methodDetailsByType = new HashMap<>();
+    private final Map<String, Set<MethodDetail>> parentMethodDetailsByType = new HashMap<>();
+
+    public MethodDetailLoader(ProcessorUtil processorUtil) {
+        this.processorUtil = processorUtil;
+    }
+
+    /**
+     * Forgets the method details loaded during the previous round, as the elements
+     * they were loaded from belong to that round
+     */
+    public void startRound() {
+        this.methodDetailsByType.clear();
+        this.parentMethodDetailsByType.clear();
+    }
+
+    /**
+     * Loads all method details; from the original type element, and any parent inferfaces
+     * up the chain which have methods we need to implement as well
+     *
+     * @param typeElement The type element of the class being implemented
+     * @return A set of method details for all methods we need to implement
+     */
+    public Set<MethodDetail> loadMethodDetails(TypeElement typeElement) {
+        return this.methodDetailsByType.computeIfAbsent(typeElement, te -> Collections.unmodifiableSet(loadAllMethodDetails(te)));
+    }
+
+    /**
+     * Does the actual work for {@link #loadMethodDetails(TypeElement)} the first time
+     * a given interface is requested
+     */
+    private Set<MethodDetail> loadAllMethodDetails(TypeElement typeElement) {
+        Set<MethodDetail> methodDetails = new TreeSet<>();
+
+        // load the methods as part of this type element
+        loadMethods(typeElement)
+                .filter(this::isValidMethod)
+                .forEach(method -> methodDetails.add(new MethodDetail(method)));
+
+        // and check for methods from our parent
+        typeElement.getInterfaces().stream()
+                .filter(tm -> tm.getKind() == TypeKind.DECLARED)
+                .map(this::loadParentMethodDetails)
+                .forEach(details -> details.forEach(methodDetails::add));
+
+        return methodDetails;
+    }
+
+    /**
+     * Loads all methods details ... but this time from only parent interfaces.
+     * <p>
+     * We split the parent from the base class when checking for methods due to generics.
+     * <p>
+     * If the base class has generics we're going to be looking only at the classes type parameters itself.
+     * However if a parent interface has types, we need to check the order of how we define those types, and
+     * use the correct return type.
+     * <p>
+     * For instance, in the following example we would need to know how Gobo and Wembley are implementing
+     * the {@code getMuppeteer()} method.
+     * <pre>
+     * {@code @AutoJackson()
+     *   public interface Fraggle<M extends Muppeteer> {
+     *     M getMuppeteer();
+     *   }
+     * }
+     *
+     * {@code @AutoJackson()
+     *   public interface Wembley { }
+     * }
+     *
+     * {@code @AutoJackson()
+     *   public interface Gobo<JerryNelson> { }
+     * }
+     * </pre>
+     * <p>
+     * After generation of the Impl files we would have
+     * <pre>
+     *  // inside Gobo_AutoJacksonImpl
+     * {@code @Override
+     *  public JerryNelson getMuppeteer() {
+     *      return muppeteer;
+     *  }
+     * }
+     *
+     *  // inside Wembley_AutoJacksonImpl
+     * {@code @Override
+     *  public Muppeteer getMuppeteer() {
+     *      return muppeteer;
+     *  }
+     * }
+     * </pre>
+     *
+     * <p>
+     * Parents are remembered by their type, arguments included, such as {@code Fraggle<JerryNelson>}.
+     * Types built from type variables are not remembered, as two interfaces may use the same name
+     * for different type variables.
+     *
+     * @param mirror The type mirror of our parent interface
+     * @return A set of method details belonging to this item (and my parents)
+     */
+    private Set<MethodDetail> loadParentMethodDetails(TypeMirror mirror) {
+        DeclaredType declaredType = (DeclaredType) mirror;
+        if (this.processorUtil.containsTypeVariable(declaredType)) {
+            return loadAllParentMethodDetails(declaredType);
+        }
+
+        String key = declaredType.toString();
+        Set<MethodDetail> methodDetails = this.parentMethodDetailsByType.get(key);
+        if (methodDetails == null) {
+            // not computeIfAbsent, as loading the parent loads its own parents into the same map
+            methodDetails = Collections.unmodifiableSet(loadAllParentMethodDetails(declaredType));
+            this.parentMethodDetailsByType.put(key, methodDetails);
+        }
+        return methodDetails;
+    }
+
+    /**
+     * Does the actual work for {@link #loadParentMethodDetails(TypeMirror)} the first time
+     * a given parent type is requested
+     */
+    private Set<MethodDetail> loadAllParentMethodDetails(DeclaredType declaredType) {
+        Set<MethodDetail> methodDetails = new TreeSet<>();
+
+        // swap the types of our mirror so we can load our data
+        TypeElement typeElement = (TypeElement) (declaredType).asElement();
+
+        // load the methods as part of this type element
+        loadMethods(typeElement)
+                .filter(this::isValidMethod)
+                .forEach(method -> methodDetails.add(checkParentMethod(declaredType, method)));
+
+        // and check for methods from our parent
+        typeElement.getInterfaces().stream()
+                .filter(tm -> tm.getKind() == TypeKind.DECLARED)
+                .map(this::loadParentMethodDetails)
+                .forEach(details -> details.forEach(methodDetails::add));
+
+        return methodDetails;
+    }
+
+    /**
+     * A Helper method for {@link #loadMethodDetails(TypeElement)} which does the hard work of actually
+     * checking the types for the parents.
+     *
+     * @param declaredType The DeclaredType object for the interface which has the method
+     * @param method       The method checking for types on
+     * @return A method detail, either with the Generic return type, or the default return type
+     */
+    private MethodDetail checkParentMethod(DeclaredType declaredType, ExecutableElement method) {
+        // check to see if we have any type parameters at all, if we don't then we can just create
+        // the standard method
+        TypeElement typeElement = (TypeElement) (declaredType).asElement();
+        List<? extends TypeParameterElement> typeParameters = typeElement.getTypeParameters();
+        if (typeParameters.isEmpty()) {
+            return new MethodDetail(method);
+        }
+
+        // otherwise we need to check if our return type is actually one of our generic parameters
+        // first we need to check if our method return type matches one of our Type Parameters
+        TypeMirror methodReturnType = method.getReturnType();
+        Optional<? extends TypeParameterElement> element = typeParameters.stream()
+                .filter(parameterElement -> methodReturnType.getKind() == TypeKind.TYPEVAR
+                        && ((TypeVariable) methodReturnType).asElement().equals(parameterElement))
+                .findFirst();
+
+        return element.map(matchingType -> {
+            final List<? extends TypeMirror> typeArguments = declaredType.getTypeArguments();
+            final int parameterIndex = typeParameters.indexOf(matchingType);
+            final TypeMirror returnType;
+
+            if (typeArguments.size() > parameterIndex) {
+                returnType = typeArguments.get(parameterIndex);
+            } else {
+                returnType = ((TypeVariable) matchingType.asType()).getUpperBound();
+            }
+
+            return new MethodDetail(method, Optional.of(returnType));
+        }).orElse(new MethodDetail(method));
+    }
+
+    /**
+     * A quick method that loads methods from a given TypeElement
+     */
+    private Stream<ExecutableElement> loadMethods(TypeElement typeElement) {
+        return typeElement.getEnclosedElements().stream()
+                .filter(e -> e.getKind() == ElementKind.METHOD)
+                .map(e -> (ExecutableElement) e);
+    }
+
+    /**
+     * @return true if it is a valid method to inplement, false otherwise
+     */
+    private boolean isValidMethod(ExecutableElement method) {
+        boolean error = true;
+        List<? extends VariableElement> methodParameters = method.getParameters();
+        if (!methodParameters.isEmpty()) {
+            this.processorUtil.error(method, "Methods inside AutoJackson classes should not have method parameters.");
+            error = false;
+        }
+        List<? extends TypeParameterElement> methodTypeParameters = method.getTypeParameters();
+        if (!methodTypeParameters.isEmpty()) {
+            this.processorUtil.error(method, "Methods inside AutoJackson methods should not have type parameters.");
+            error = false;
+        }
+        return error;
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.github.peckb1.processor.util;
+
+import javax.annotation.processing.Messager;
+import javax.tools.Diagnostic;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Adds up the time the processor spends in each of its creators across every round.
+ * <p>
+ * Timings are only recorded when the {@value #TIMINGS_OPTION} processor option is
+ * turned on, and are reported as notes once processing is over, one per phase in the
+ * form {@code AutoJackson phase <name>: <millis> ms}.
+ */
+public final class PhaseTimer {
+
+    public static final String TIMINGS_OPTION = "autojackson.timings";
+
+    private final boolean enabled;
+    private final Map<String, Long> nanosByPhase = new LinkedHashMap<>();
+
+    public PhaseTimer(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @param phase  The name of the phase to add the time taken to
+     * @param action The work done in that phase
+     */
+    public void time(String phase, Runnable action) {
+        if (!this.enabled) {
+            action.run();
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            this.nanosByPhase.merge(phase, System.nanoTime() - start, Long::sum);
+        }
+    }
+
+    /**
+     * @param messager Where to report the time taken by each phase
+     */
+    public void report(Messager messager) {
+        this.nanosByPhase.forEach((phase, nanos) ->
+                messager.printMessage(Diagnostic.Kind.NOTE, String.format(Locale.ROOT, "AutoJackson phase %s: %.3f ms", phase, nanos / 1_000_000.0)));
+    }
+}
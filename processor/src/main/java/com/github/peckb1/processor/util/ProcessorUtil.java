@@ -1,31 +1,57 @@
 package com.github.peckb1.processor.util;
 
+import com.fasterxml.jackson.annotation.JacksonAnnotation;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.github.peckb1.processor.Named;
 import com.google.common.base.CaseFormat;
 import com.github.peckb1.processor.AutoJackson;
 import com.github.peckb1.processor.AutoJackson.Type;
+import com.github.peckb1.processor.NoTypeEnum;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
 
 import javax.annotation.processing.Messager;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
 import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * A utility class for common methods used across the
  * pieces of the annotation processor
+ * <p>
+ * The types of the library classes it checks against, such as {@link Optional}, are
+ * looked up once per round rather than for every property.
  */
 public final class ProcessorUtil {
 
     private final static String USUAL_ACCESSOR_PREFIX = "get";
 
+    private final Types typeUtils;
     private final Elements elementUtils;
     private final Messager messager;
+    private final Map<Class<?>, TypeMirror> typesByClass = new HashMap<>();
 
-    public ProcessorUtil(Elements elementUtils, Messager messager) {
+    public ProcessorUtil(Types typeUtils, Elements elementUtils, Messager messager) {
+        this.typeUtils = typeUtils;
         this.elementUtils = elementUtils;
         this.messager = messager;
     }
@@ -47,6 +73,35 @@ public final class ProcessorUtil {
         }
     }
 
+    /**
+     * Checks if a given {@link AutoJackson.Type} was specified by the user, and we
+     * have a more complex scenario. Or if {@link NoTypeEnum} was left (the default)
+     * and we have a simple case to handle.
+     *
+     * @param annotation The annotation to check the type of
+     * @return true if the annotation does not have a custom type, false if it does
+     */
+    public boolean isSimpleClass(AutoJackson annotation) {
+        String annotationValueName = getTypeElement(annotation).getQualifiedName().toString();
+        String defaultName = NoTypeEnum.class.getCanonicalName();
+        return annotationValueName.equals(defaultName);
+    }
+
+    /**
+     * Forgets the types looked up during the previous round
+     */
+    public void startRound() {
+        this.typesByClass.clear();
+    }
+
+    /**
+     * @param clazz A class available to the code being compiled
+     * @return The type of the class
+     */
+    public TypeMirror getType(Class<?> clazz) {
+        return this.typesByClass.computeIfAbsent(clazz, c -> this.elementUtils.getTypeElement(c.getCanonicalName()).asType());
+    }
+
     /**
      * logs an error to our messenger
      *
@@ -96,4 +151,160 @@ public final class ProcessorUtil {
             return namedAnnotation.value();
         }
     }
+
+    /**
+     * Checks if an accessor carries any Jackson annotations, such as {@code @JsonFormat}, which
+     * change how the value of the property is read or written. Such properties go through the
+     * serializers and deserializers Jackson finds for them, rather than being handled directly.
+     *
+     * @param method The accessor method of the property
+     * @return true if any annotation on the method is itself annotated with {@link JacksonAnnotation}
+     */
+    public boolean hasJacksonAnnotations(ExecutableElement method) {
+        return method.getAnnotationMirrors().stream()
+                .anyMatch(mirror -> mirror.getAnnotationType().asElement().getAnnotation(JacksonAnnotation.class) != null);
+    }
+
+    /**
+     * @return The name Jackson uses for the enum constant, taking any {@link JsonProperty} annotation into account
+     */
+    public String loadEnumValueName(Element enumValueElement) {
+        JsonProperty jsonProperty = enumValueElement.getAnnotation(JsonProperty.class);
+        if (jsonProperty != null && !jsonProperty.value().isEmpty()) {
+            return jsonProperty.value();
+        }
+        return enumValueElement.getSimpleName().toString();
+    }
+
+    /**
+     * Checks if a given type is an {@link Optional}, and therefore does not need
+     * to be present inside the JSON data.
+     *
+     * @param type The type to check
+     * @return true if the erasure of the type is an {@link Optional}, false otherwise
+     */
+    public boolean isOptional(TypeMirror type) {
+        TypeMirror optional = getType(Optional.class);
+        TypeMirror erasure = this.typeUtils.erasure(type);
+        return this.typeUtils.isAssignable(optional, erasure);
+    }
+
+    /**
+     * Checks if a property of an interface is held lazily by the implementation class, which
+     * is the case for any property holding JSON objects or arrays when {@link AutoJackson#lazy()}
+     * is set for the interface.
+     *
+     * @param typeElement The interface the property belongs to
+     * @param type        The type of the property
+     * @return true if the property is read lazily, false otherwise
+     */
+    public boolean isLazy(TypeElement typeElement, TypeMirror type) {
+        return typeElement.getAnnotation(AutoJackson.class).lazy() && isNested(type);
+    }
+
+    /**
+     * @return true if the type is read from a JSON object or array
+     */
+    private boolean isNested(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return true;
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        DeclaredType declaredType = (DeclaredType) type;
+        if (declaredType.asElement().getAnnotation(AutoJackson.class) != null) {
+            return true;
+        }
+        if (isOptional(type)) {
+            List<? extends TypeMirror> typeArguments = declaredType.getTypeArguments();
+            return typeArguments.size() == 1 && isNested(typeArguments.get(0));
+        }
+        TypeMirror erasure = this.typeUtils.erasure(type);
+        return this.typeUtils.isAssignable(erasure, this.typeUtils.erasure(getType(Collection.class)))
+                || this.typeUtils.isAssignable(erasure, this.typeUtils.erasure(getType(Map.class)));
+    }
+
+    /**
+     * @param typeElement The interface being implemented
+     * @return The name of the implementation class created for the interface
+     */
+    public ClassName createImplementationClassName(TypeElement typeElement) {
+        String packageName = this.elementUtils.getPackageOf(typeElement).getQualifiedName().toString();
+        return ClassName.get(packageName, typeElement.getSimpleName() + ImplementationCreator.CLASS_IMPLEMENTATION_NAME_SUFFIX);
+    }
+
+    /**
+     * Creates the type used to hold a value of the given type inside our generated classes.
+     * <p>
+     * The generated serializers and deserializers do not know about the type variables of the interface, so
+     * any type relying on a type variable falls back to its erasure.
+     *
+     * @param type The type of the property being held
+     * @return The type name to use for a variable holding the property
+     */
+    public TypeName createLocalTypeName(TypeMirror type) {
+        if (containsTypeVariable(type)) {
+            return TypeName.get(this.typeUtils.erasure(type));
+        }
+        return TypeName.get(type);
+    }
+
+    /**
+     * Creates the code needed to construct the Jackson {@link com.fasterxml.jackson.databind.JavaType}
+     * for a given type, using a {@link com.fasterxml.jackson.databind.type.TypeFactory} variable
+     * available inside the generated code.
+     * <p>
+     * Parameterized types are created through a {@link TypeReference} so that the type factory
+     * of the {@link com.fasterxml.jackson.databind.ObjectMapper} can apply any registered modifiers,
+     * such as the one turning {@link java.util.Optional} into a reference type. For example
+     * {@code Optional<List<Fraggle>>} would create
+     * <pre>
+     * {@code typeFactory.constructType(new TypeReference<Optional<List<Fraggle>>>() { })}
+     * </pre>
+     *
+     * @param type                The type to construct
+     * @param typeFactoryVariable The name of the variable holding the type factory
+     * @return A code block creating the java type
+     */
+    public CodeBlock createJavaType(TypeMirror type, String typeFactoryVariable) {
+        TypeName localTypeName = createLocalTypeName(type);
+        if (isParameterized(localTypeName)) {
+            TypeSpec typeReference = TypeSpec.anonymousClassBuilder("")
+                    .superclass(ParameterizedTypeName.get(ClassName.get(TypeReference.class), localTypeName))
+                    .build();
+            return CodeBlock.of("$L.constructType($L)", typeFactoryVariable, typeReference);
+        }
+        return CodeBlock.of("$L.constructType($T.class)", typeFactoryVariable, localTypeName);
+    }
+
+    /**
+     * @return true if the type name, or any part of it, has type arguments
+     */
+    private boolean isParameterized(TypeName typeName) {
+        if (typeName instanceof ArrayTypeName) {
+            return isParameterized(((ArrayTypeName) typeName).componentType);
+        }
+        return typeName instanceof ParameterizedTypeName;
+    }
+
+    /**
+     * @return true if the type is, or is built from, a type variable
+     */
+    public boolean containsTypeVariable(TypeMirror type) {
+        switch (type.getKind()) {
+            case TYPEVAR:
+                return true;
+            case ARRAY:
+                return containsTypeVariable(((ArrayType) type).getComponentType());
+            case DECLARED:
+                return ((DeclaredType) type).getTypeArguments().stream().anyMatch(this::containsTypeVariable);
+            case WILDCARD:
+                WildcardType wildcardType = (WildcardType) type;
+                return (wildcardType.getExtendsBound() != null && containsTypeVariable(wildcardType.getExtendsBound()))
+                        || (wildcardType.getSuperBound() != null && containsTypeVariable(wildcardType.getSuperBound()));
+            default:
+                return false;
+        }
+    }
 }
@@ -0,0 +1,211 @@
+package com.github.peckb1.processor.util;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.github.peckb1.processor.AutoJackson;
+import com.github.peckb1.processor.AutoJacksonFlow;
+import com.github.peckb1.processor.AutoJacksonStreams;
+import com.github.peckb1.processor.JsonValueFeeder;
+import com.github.peckb1.processor.ParallelJsonReader;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+import org.reactivestreams.Publisher;
+
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A creator which writes a reader class for each interface annotated with {@link AutoJackson},
+ * used to read instances straight out of encoded JSON data held in a byte array or a
+ * {@link ByteBuffer}.
+ * <p>
+ * The reader holds on to an {@link ObjectReader} for the interface, so the deserializer is only
+ * looked up once, and hands the bytes directly to a parser rather than copying them into a
+ * {@link String} first. Paired with the deserializers created by {@link SimpleDeserializerCreator},
+ * which match property names against their precomputed UTF-8 bytes, the only copies made are of
+ * the values themselves.
+ * <p>
+ * The reader can also pull the values of a large JSON array, or of newline delimited JSON,
+ * one at a time out of an {@link InputStream} or file, reusing one parser and its buffers
+ * so memory stays flat however large the input is, or hand files off to a
+ * {@link ParallelJsonReader} to be decoded on every core. Input arriving in pieces, such as
+ * off of a socket, can be given to a {@link JsonValueFeeder} which decodes each value as soon
+ * as its last byte arrives, or published as {@link ByteBuffer}s to be decoded by {@link AutoJacksonFlow}
+ * as the values are requested.
+ */
+public class ReaderCreator {
+
+    static final String READER_CLASS_NAME_SUFFIX = "_AutoJacksonReader";
+
+    private static final String READER_FIELD_NAME = "reader";
+    private static final String BUFFER_PARAMETER_NAME = "buffer";
+    private static final String INPUT_PARAMETER_NAME = "input";
+    private static final String PATH_PARAMETER_NAME = "path";
+
+    private final SourceWriter sourceWriter;
+    private final ProcessorUtil processorUtil;
+
+    public ReaderCreator(SourceWriter sourceWriter, ProcessorUtil processorUtil) {
+        this.sourceWriter = sourceWriter;
+        this.processorUtil = processorUtil;
+    }
+
+    /**
+     * Creates the reader class for the given {@link TypeElement}
+     *
+     * @param typeElement The interface to create a reader for
+     */
+    public void createReader(TypeElement typeElement) {
+        ClassName interfaceName = ClassName.get(typeElement);
+
+        MethodSpec constructor = MethodSpec.constructorBuilder()
+                .addJavadoc("@param objectMapper A mapper already configured through {@code AutoJacksonSetup}\n")
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(ObjectMapper.class, "objectMapper")
+                .addStatement("this.$L = objectMapper.readerFor($T.class)", READER_FIELD_NAME, interfaceName)
+                .build();
+
+        MethodSpec readArray = MethodSpec.methodBuilder("read")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(interfaceName)
+                .addParameter(byte[].class, BUFFER_PARAMETER_NAME)
+                .addException(IOException.class)
+                .addStatement("return read($L, 0, $L.length)", BUFFER_PARAMETER_NAME, BUFFER_PARAMETER_NAME)
+                .build();
+
+        MethodSpec readArrayRange = MethodSpec.methodBuilder("read")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(interfaceName)
+                .addParameter(byte[].class, BUFFER_PARAMETER_NAME)
+                .addParameter(int.class, "offset")
+                .addParameter(int.class, "length")
+                .addException(IOException.class)
+                .addStatement("return this.$L.readValue($L, offset, length)", READER_FIELD_NAME, BUFFER_PARAMETER_NAME)
+                .build();
+
+        MethodSpec readByteBuffer = MethodSpec.methodBuilder("read")
+                .addJavadoc("Reads the remaining bytes of the buffer, leaving its position untouched\n")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(interfaceName)
+                .addParameter(ByteBuffer.class, BUFFER_PARAMETER_NAME)
+                .addException(IOException.class)
+                .beginControlFlow("if ($L.hasArray())", BUFFER_PARAMETER_NAME)
+                .addStatement("return read($L.array(), $L.arrayOffset() + $L.position(), $L.remaining())",
+                        BUFFER_PARAMETER_NAME, BUFFER_PARAMETER_NAME, BUFFER_PARAMETER_NAME, BUFFER_PARAMETER_NAME)
+                .endControlFlow()
+                .addComment("direct buffers are streamed into the parser a block at a time")
+                .addStatement("return this.$L.readValue(new $T($L.duplicate()))", READER_FIELD_NAME, ByteBufferBackedInputStream.class, BUFFER_PARAMETER_NAME)
+                .build();
+
+        ParameterizedTypeName iteratorName = ParameterizedTypeName.get(ClassName.get(MappingIterator.class), interfaceName);
+        ParameterizedTypeName streamName = ParameterizedTypeName.get(ClassName.get(Stream.class), interfaceName);
+
+        MethodSpec readValuesStream = MethodSpec.methodBuilder("readValues")
+                .addJavadoc("Reads each value of a top level JSON array, or of values separated by whitespace such as\n")
+                .addJavadoc("newline delimited JSON, one at a time using a single parser. Closing the iterator closes the input.\n")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(iteratorName)
+                .addParameter(InputStream.class, INPUT_PARAMETER_NAME)
+                .addException(IOException.class)
+                .addStatement("return this.$L.readValues($L)", READER_FIELD_NAME, INPUT_PARAMETER_NAME)
+                .build();
+
+        MethodSpec readValuesPath = MethodSpec.methodBuilder("readValues")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(iteratorName)
+                .addParameter(Path.class, PATH_PARAMETER_NAME)
+                .addException(IOException.class)
+                .addStatement("$T $L = $T.newInputStream($L)", InputStream.class, INPUT_PARAMETER_NAME, Files.class, PATH_PARAMETER_NAME)
+                .beginControlFlow("try")
+                .addStatement("return readValues($L)", INPUT_PARAMETER_NAME)
+                .nextControlFlow("catch ($T | $T e)", IOException.class, RuntimeException.class)
+                .addStatement("$L.close()", INPUT_PARAMETER_NAME)
+                .addStatement("throw e")
+                .endControlFlow()
+                .build();
+
+        MethodSpec streamInput = MethodSpec.methodBuilder("stream")
+                .addJavadoc("The same values as {@link #readValues($T)}, which need the stream closed once done with\n", InputStream.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(streamName)
+                .addParameter(InputStream.class, INPUT_PARAMETER_NAME)
+                .addException(IOException.class)
+                .addStatement("return $T.stream(readValues($L))", AutoJacksonStreams.class, INPUT_PARAMETER_NAME)
+                .build();
+
+        MethodSpec streamPath = MethodSpec.methodBuilder("stream")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(streamName)
+                .addParameter(Path.class, PATH_PARAMETER_NAME)
+                .addException(IOException.class)
+                .addStatement("return $T.stream(readValues($L))", AutoJacksonStreams.class, PATH_PARAMETER_NAME)
+                .build();
+
+        MethodSpec parallel = MethodSpec.methodBuilder("parallel")
+                .addJavadoc("@return A reader decoding memory mapped files across all of the cores of the machine\n")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(ParameterizedTypeName.get(ClassName.get(ParallelJsonReader.class), interfaceName))
+                .addStatement("return new $T<>(this.$L)", ParallelJsonReader.class, READER_FIELD_NAME)
+                .build();
+
+        MethodSpec feeder = MethodSpec.methodBuilder("feeder")
+                .addJavadoc("@param consumer Given each value as soon as all of its bytes have been fed\n")
+                .addJavadoc("@return A feeder reading values out of bytes fed in pieces, such as reads off of a socket\n")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(ParameterizedTypeName.get(ClassName.get(JsonValueFeeder.class), interfaceName))
+                .addParameter(ParameterizedTypeName.get(ClassName.get(Consumer.class), WildcardTypeName.supertypeOf(interfaceName)), "consumer")
+                .addStatement("return new $T<>(this.$L, consumer)", JsonValueFeeder.class, READER_FIELD_NAME)
+                .build();
+
+        ClassName publisherName = ClassName.get(Publisher.class);
+        MethodSpec decode = MethodSpec.methodBuilder("decode")
+                .addJavadoc("@param bytes The encoded values, only requested a buffer at a time as the values are wanted\n")
+                .addJavadoc("@return A publisher of each value, decoded as the bytes for it arrive\n")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(ParameterizedTypeName.get(publisherName, interfaceName))
+                .addParameter(ParameterizedTypeName.get(publisherName, ClassName.get(ByteBuffer.class)), "bytes")
+                .addStatement("return $T.decode(bytes, this.$L)", AutoJacksonFlow.class, READER_FIELD_NAME)
+                .build();
+
+        TypeSpec readerClass = TypeSpec.classBuilder(typeElement.getSimpleName() + READER_CLASS_NAME_SUFFIX)
+                .addOriginatingElement(typeElement)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addField(FieldSpec.builder(ObjectReader.class, READER_FIELD_NAME, Modifier.PRIVATE, Modifier.FINAL).build())
+                .addMethod(constructor)
+                .addMethod(readArray)
+                .addMethod(readArrayRange)
+                .addMethod(readByteBuffer)
+                .addMethod(readValuesStream)
+                .addMethod(readValuesPath)
+                .addMethod(streamInput)
+                .addMethod(streamPath)
+                .addMethod(parallel)
+                .addMethod(feeder)
+                .addMethod(decode)
+                .build();
+
+        JavaFile javaFile = JavaFile.builder(interfaceName.packageName(), readerClass)
+                .build();
+
+        try {
+            this.sourceWriter.write(javaFile);
+        } catch (IOException e) {
+            this.processorUtil.error(typeElement, e.getMessage());
+        }
+    }
+
+}
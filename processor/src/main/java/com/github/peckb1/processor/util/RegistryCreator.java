@@ -0,0 +1,141 @@
+package com.github.peckb1.processor.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.peckb1.processor.AutoJackson;
+import com.google.common.base.CaseFormat;
+import com.google.common.collect.ImmutableList;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeSpec;
+
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Creates a registry holding an {@link ObjectReader} for every {@link AutoJackson} interface,
+ * and an {@link ObjectWriter} for every interface with an implementation class, all built
+ * once from a configured {@link ObjectMapper}.
+ * <p>
+ * Each reader and writer looks up its root serializer as it is built, so using them skips
+ * the root type and serializer lookups {@code objectMapper.readValue(json, Sample.class)}
+ * makes on every call. Reaching one is a single field read:
+ * <pre>
+ * {@code AutoJacksonReaders readers = new AutoJacksonReaders(objectMapper);
+ *  Sample sample = readers.sample().readValue(json);
+ *  byte[] bytes = readers.sampleWriter().writeValueAsBytes(sample);
+ * }
+ * </pre>
+ * The registry lives next to the generated module and is named after it, {@code AutoJacksonReaders}
+ * coming with {@code AutoJacksonModule}, and like the readers and writers
+ * themselves is immutable and safe to share between threads.
+ */
+public class RegistryCreator {
+
+    public static final String REGISTRY_CLASS_SUFFIX = "Readers";
+
+    private static final String WRITER_SUFFIX = "Writer";
+
+    private final SourceWriter sourceWriter;
+    private final ProcessorUtil processorUtil;
+
+    public RegistryCreator(SourceWriter sourceWriter, ProcessorUtil processorUtil) {
+        this.sourceWriter = sourceWriter;
+        this.processorUtil = processorUtil;
+    }
+
+    /**
+     * @param moduleClassName The module created for the interfaces
+     * @return The name of the registry created alongside the module
+     */
+    public static ClassName createRegistryClassName(ClassName moduleClassName) {
+        return SetupCreator.createSiblingClassName(moduleClassName, REGISTRY_CLASS_SUFFIX);
+    }
+
+    /**
+     * @param moduleClassName       The module created for the interfaces
+     * @param interfaces            All of the interfaces which had a deserializer created for them
+     * @param implementedInterfaces The interfaces which also had an implementation class and serializer created
+     */
+    public void createRegistry(ClassName moduleClassName,
+                               ImmutableList<TypeElement> interfaces,
+                               ImmutableList<TypeElement> implementedInterfaces) {
+        ClassName registryClassName = createRegistryClassName(moduleClassName);
+
+        MethodSpec.Builder constructorBuilder = MethodSpec.constructorBuilder()
+                .addJavadoc("@param objectMapper The mapper to build from, already configured for the interfaces\n")
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(ObjectMapper.class, "objectMapper");
+
+        TypeSpec.Builder registryClassBuilder = TypeSpec.classBuilder(registryClassName.simpleName())
+                .addJavadoc("Readers and writers for every interface, built once from an object mapper\n")
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL);
+
+        Set<String> usedNames = new HashSet<>();
+        interfaces.forEach(element -> {
+            CodeBlock interfaceClass = element.getTypeParameters().isEmpty()
+                    ? CodeBlock.of("$T.class", element)
+                    : CodeBlock.of("$L.class", element.getQualifiedName());
+            String readerName = createAccessorName(element, usedNames);
+
+            constructorBuilder.addStatement("this.$L = objectMapper.readerFor($L)", readerName, interfaceClass);
+            registryClassBuilder.addField(FieldSpec.builder(ObjectReader.class, readerName, Modifier.PRIVATE, Modifier.FINAL).build())
+                    .addMethod(MethodSpec.methodBuilder(readerName)
+                            .addJavadoc("@return The reader for {@link $T}\n", ClassName.get(element))
+                            .addModifiers(Modifier.PUBLIC)
+                            .returns(ObjectReader.class)
+                            .addStatement("return this.$L", readerName)
+                            .build());
+
+            if (implementedInterfaces.contains(element)) {
+                // written through the implementation class, as that is what the serializer is registered for
+                String writerName = readerName + WRITER_SUFFIX;
+                constructorBuilder.addStatement("this.$L = objectMapper.writerFor($T.class)", writerName,
+                        this.processorUtil.createImplementationClassName(element));
+                registryClassBuilder.addField(FieldSpec.builder(ObjectWriter.class, writerName, Modifier.PRIVATE, Modifier.FINAL).build())
+                        .addMethod(MethodSpec.methodBuilder(writerName)
+                                .addJavadoc("@return The writer for {@link $T}\n", ClassName.get(element))
+                                .addModifiers(Modifier.PUBLIC)
+                                .returns(ObjectWriter.class)
+                                .addStatement("return this.$L", writerName)
+                                .build());
+            }
+        });
+
+        registryClassBuilder.addMethod(constructorBuilder.build());
+        interfaces.forEach(registryClassBuilder::addOriginatingElement);
+
+        JavaFile javaFile = JavaFile
+                .builder(registryClassName.packageName(), registryClassBuilder.build())
+                .build();
+
+        try {
+            this.sourceWriter.write(javaFile);
+        } catch (IOException e) {
+            this.processorUtil.error(null, e.getMessage());
+        }
+    }
+
+    /**
+     * @return The name of the interface starting in lower case, such as {@code sample} for {@code Sample},
+     * with a number added to keep it unique and away from any Java keyword
+     */
+    private String createAccessorName(TypeElement element, Set<String> usedNames) {
+        String baseName = CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_CAMEL, element.getSimpleName().toString());
+        String name = baseName;
+        for (int suffix = 2; SourceVersion.isKeyword(name) || usedNames.contains(name) || usedNames.contains(name + WRITER_SUFFIX); suffix++) {
+            name = baseName + suffix;
+        }
+        usedNames.add(name);
+        usedNames.add(name + WRITER_SUFFIX);
+        return name;
+    }
+}
@@ -0,0 +1,319 @@
+package com.github.peckb1.processor.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.impl.PropertySerializerMap;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.github.peckb1.processor.AutoJackson;
+import com.github.peckb1.processor.AutoJacksonProperties;
+import com.google.common.base.CaseFormat;
+import com.google.common.collect.ImmutableMap;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A creator which writes a custom Jackson serializer for each interface annotated
+ * with {@link AutoJackson} that has an implementation class created for it.
+ * <p>
+ * The serializer writes each property using precomputed {@link SerializedString} names,
+ * calling the accessor methods of the interface directly rather than relying on Jackson
+ * introspecting the implementation class. Like the implementation class, any null or
+ * empty values are left out of the JSON data.
+ * <p>
+ * Values which are not written straight to the generator use serializers looked up for a
+ * {@link BeanProperty} of the accessor, the same way Jackson looks them up for the property
+ * of a bean, so annotations such as {@code @JsonFormat} on the accessor are applied.
+ */
+public class SerializerCreator {
+
+    final static String SERIALIZER_CLASS_NAME_SUFFIX = "_AutoJacksonSerializer";
+
+    private static final String VALUE_PARAMETER_NAME = "value";
+    private static final String JSON_GENERATOR_PARAMETER_NAME = "jsonGenerator";
+    private static final String SERIALIZER_PROVIDER_PARAMETER_NAME = "provider";
+    private static final String VALUE_VARIABLE_SUFFIX = "Value";
+    private static final String SERIALIZER_FIELD_SUFFIX = "Serializer";
+    private static final String SERIALIZER_MAP_FIELD_SUFFIX = "Serializers";
+    private static final String PROPERTY_FIELD_SUFFIX = "Property";
+
+    /**
+     * The {@link JsonGenerator} methods we can use to directly write simple values,
+     * rather than going through another serializer
+     */
+    private static final ImmutableMap<TypeName, String> WRITE_METHODS = ImmutableMap.<TypeName, String>builder()
+            .put(TypeName.INT, "writeNumber")
+            .put(TypeName.INT.box(), "writeNumber")
+            .put(TypeName.LONG, "writeNumber")
+            .put(TypeName.LONG.box(), "writeNumber")
+            .put(TypeName.SHORT, "writeNumber")
+            .put(TypeName.SHORT.box(), "writeNumber")
+            .put(TypeName.FLOAT, "writeNumber")
+            .put(TypeName.FLOAT.box(), "writeNumber")
+            .put(TypeName.DOUBLE, "writeNumber")
+            .put(TypeName.DOUBLE.box(), "writeNumber")
+            .put(TypeName.BOOLEAN, "writeBoolean")
+            .put(TypeName.BOOLEAN.box(), "writeBoolean")
+            .put(ClassName.get(String.class), "writeString")
+            .build();
+
+    private final Types typeUtils;
+    private final Elements elementUtils;
+    private final SourceWriter sourceWriter;
+    private final ProcessorUtil processorUtil;
+    private final MethodDetailLoader methodDetailLoader;
+
+    public SerializerCreator(Types typeUtils, Elements elementUtils, SourceWriter sourceWriter, ProcessorUtil processorUtil, MethodDetailLoader methodDetailLoader) {
+        this.typeUtils = typeUtils;
+        this.elementUtils = elementUtils;
+        this.sourceWriter = sourceWriter;
+        this.processorUtil = processorUtil;
+        this.methodDetailLoader = methodDetailLoader;
+    }
+
+    /**
+     * Creates a custom Jackson serializer for the given {@link TypeElement}, which
+     * is registered against the implementation class of the interface.
+     *
+     * @param typeElement The interface to create a custom serializer for
+     */
+    public void createSerializer(TypeElement typeElement) {
+        ClassName interfaceName = ClassName.get(typeElement);
+        TypeName valueType = TypeName.get(this.typeUtils.getDeclaredType(typeElement));
+
+        TypeSpec.Builder serializerClassBuilder = TypeSpec
+                .classBuilder(typeElement.getSimpleName() + SERIALIZER_CLASS_NAME_SUFFIX)
+                .addOriginatingElement(typeElement)
+                .superclass(ParameterizedTypeName.get(ClassName.get(StdSerializer.class), valueType))
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PUBLIC)
+                        .addStatement("super($T.class)", interfaceName)
+                        .build());
+
+        MethodSpec.Builder serializeFieldsBuilder = MethodSpec.methodBuilder("serializeFields")
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(valueType, VALUE_PARAMETER_NAME)
+                .addParameter(JsonGenerator.class, JSON_GENERATOR_PARAMETER_NAME)
+                .addParameter(SerializerProvider.class, SERIALIZER_PROVIDER_PARAMETER_NAME)
+                .addException(IOException.class);
+
+        MethodSpec.Builder resolveMethodBuilder = MethodSpec.methodBuilder("resolve")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(SerializerProvider.class, SERIALIZER_PROVIDER_PARAMETER_NAME)
+                .addException(JsonMappingException.class)
+                .addStatement("$T typeFactory = $L.getTypeFactory()", TypeFactory.class, SERIALIZER_PROVIDER_PARAMETER_NAME);
+
+        CodeBlock.Builder fieldsCode = CodeBlock.builder();
+        boolean resolvable = false;
+        boolean wrapExceptions = false;
+
+        Set<MethodDetail> methods = this.methodDetailLoader.loadMethodDetails(typeElement);
+        for (MethodDetail methodDetail : methods) {
+            ExecutableElement method = methodDetail.getElement();
+            TypeMirror returnType = methodDetail.getReturnType();
+            String memberVariableName = this.processorUtil.createMemberVariableName(method);
+            String constantName = CaseFormat.LOWER_CAMEL.to(CaseFormat.UPPER_UNDERSCORE, memberVariableName);
+            String localName = memberVariableName + VALUE_VARIABLE_SUFFIX;
+
+            // the precomputed name of the property
+            serializerClassBuilder.addField(FieldSpec.builder(SerializedString.class, constantName, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("new $T($S)", SerializedString.class, memberVariableName)
+                    .build());
+
+            wrapExceptions |= method.getThrownTypes().stream().anyMatch(this::needsWrapping);
+
+            Optional<String> writeMethod = writeMethod(methodDetail);
+            String propertyField = memberVariableName + PROPERTY_FIELD_SUFFIX;
+            if (!writeMethod.isPresent()) {
+                // the property carries the annotations of the accessor to the serializers of its values
+                serializerClassBuilder.addField(FieldSpec.builder(BeanProperty.class, propertyField, Modifier.PRIVATE).build());
+                resolveMethodBuilder.addStatement("this.$L = $T.create($L.getConfig(), handledType(), $S, $S, $L, $L)",
+                        propertyField, AutoJacksonProperties.class, SERIALIZER_PROVIDER_PARAMETER_NAME, method.getSimpleName(), memberVariableName,
+                        this.processorUtil.createJavaType(returnType, "typeFactory"), !this.processorUtil.isOptional(returnType));
+                resolvable = true;
+            }
+
+            if (writeMethod.isPresent()) {
+                TypeName typeName = TypeName.get(returnType);
+                if (typeName.isPrimitive()) {
+                    fieldsCode.addStatement("$L.writeFieldName($L)", JSON_GENERATOR_PARAMETER_NAME, constantName)
+                            .addStatement("$L.$L($L.$L())", JSON_GENERATOR_PARAMETER_NAME, writeMethod.get(), VALUE_PARAMETER_NAME, method.getSimpleName());
+                } else {
+                    fieldsCode.addStatement("$T $L = $L.$L()", typeName, localName, VALUE_PARAMETER_NAME, method.getSimpleName());
+                    if (typeName.equals(ClassName.get(String.class))) {
+                        fieldsCode.beginControlFlow("if ($L != null && !$L.isEmpty())", localName, localName);
+                    } else {
+                        fieldsCode.beginControlFlow("if ($L != null)", localName);
+                    }
+                    fieldsCode.addStatement("$L.writeFieldName($L)", JSON_GENERATOR_PARAMETER_NAME, constantName)
+                            .addStatement("$L.$L($L)", JSON_GENERATOR_PARAMETER_NAME, writeMethod.get(), localName)
+                            .endControlFlow();
+                }
+            } else if (hasStaticSerializer(returnType) || this.processorUtil.hasJacksonAnnotations(method)) {
+                // the type can not change at runtime, or the annotations pick the serializer, so we look it up once
+                String serializerField = memberVariableName + SERIALIZER_FIELD_SUFFIX;
+                serializerClassBuilder.addField(FieldSpec.builder(ParameterizedTypeName.get(JsonSerializer.class, Object.class), serializerField, Modifier.PRIVATE)
+                        .build());
+                resolveMethodBuilder.addStatement("this.$L = $T.findSerializer($L, this.$L)",
+                        serializerField, AutoJacksonProperties.class, SERIALIZER_PROVIDER_PARAMETER_NAME, propertyField);
+
+                fieldsCode.addStatement("$T $L = $L.$L()", Object.class, localName, VALUE_PARAMETER_NAME, method.getSimpleName())
+                        .beginControlFlow("if ($L != null && !this.$L.isEmpty($L, $L))", localName, serializerField, SERIALIZER_PROVIDER_PARAMETER_NAME, localName)
+                        .addStatement("$L.writeFieldName($L)", JSON_GENERATOR_PARAMETER_NAME, constantName)
+                        .addStatement("this.$L.serialize($L, $L, $L)", serializerField, localName, JSON_GENERATOR_PARAMETER_NAME, SERIALIZER_PROVIDER_PARAMETER_NAME)
+                        .endControlFlow();
+            } else {
+                // otherwise the serializer depends on the class of the value, which we remember as we see them
+                String serializerMapField = memberVariableName + SERIALIZER_MAP_FIELD_SUFFIX;
+                serializerClassBuilder.addField(FieldSpec.builder(PropertySerializerMap.class, serializerMapField, Modifier.PRIVATE)
+                        .initializer("$T.emptyForProperties()", PropertySerializerMap.class)
+                        .build());
+
+                fieldsCode.addStatement("$T $L = $L.$L()", Object.class, localName, VALUE_PARAMETER_NAME, method.getSimpleName())
+                        .beginControlFlow("if ($L != null)", localName)
+                        .addStatement("$T<?> type = $L.getClass()", Class.class, localName)
+                        .addStatement("$T serializer = this.$L.serializerFor(type)", ParameterizedTypeName.get(JsonSerializer.class, Object.class), serializerMapField)
+                        .beginControlFlow("if (serializer == null)")
+                        .addStatement("$T result = this.$L.findAndAddSecondarySerializer(type, $L, this.$L)",
+                                PropertySerializerMap.SerializerAndMapResult.class, serializerMapField, SERIALIZER_PROVIDER_PARAMETER_NAME, propertyField)
+                        .addStatement("this.$L = result.map", serializerMapField)
+                        .addStatement("serializer = result.serializer")
+                        .endControlFlow()
+                        .beginControlFlow("if (!serializer.isEmpty($L, $L))", SERIALIZER_PROVIDER_PARAMETER_NAME, localName)
+                        .addStatement("$L.writeFieldName($L)", JSON_GENERATOR_PARAMETER_NAME, constantName)
+                        .addStatement("serializer.serialize($L, $L, $L)", localName, JSON_GENERATOR_PARAMETER_NAME, SERIALIZER_PROVIDER_PARAMETER_NAME)
+                        .endControlFlow()
+                        .endControlFlow();
+            }
+        }
+
+        if (wrapExceptions) {
+            // some accessors throw checked exceptions we can not pass along from the serializer
+            serializeFieldsBuilder.beginControlFlow("try")
+                    .addCode(fieldsCode.build())
+                    .nextControlFlow("catch ($T | $T e)", IOException.class, RuntimeException.class)
+                    .addStatement("throw e")
+                    .nextControlFlow("catch ($T e)", Exception.class)
+                    .addStatement("throw $T.from($L, e.getMessage(), e)", JsonMappingException.class, SERIALIZER_PROVIDER_PARAMETER_NAME)
+                    .endControlFlow();
+        } else {
+            serializeFieldsBuilder.addCode(fieldsCode.build());
+        }
+
+        MethodSpec serializeMethod = MethodSpec.methodBuilder("serialize")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(valueType, VALUE_PARAMETER_NAME)
+                .addParameter(JsonGenerator.class, JSON_GENERATOR_PARAMETER_NAME)
+                .addParameter(SerializerProvider.class, SERIALIZER_PROVIDER_PARAMETER_NAME)
+                .addException(IOException.class)
+                .addStatement("$L.writeStartObject()", JSON_GENERATOR_PARAMETER_NAME)
+                .addStatement("serializeFields($L, $L, $L)", VALUE_PARAMETER_NAME, JSON_GENERATOR_PARAMETER_NAME, SERIALIZER_PROVIDER_PARAMETER_NAME)
+                .addStatement("$L.writeEndObject()", JSON_GENERATOR_PARAMETER_NAME)
+                .build();
+
+        MethodSpec serializeWithTypeMethod = MethodSpec.methodBuilder("serializeWithType")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(valueType, VALUE_PARAMETER_NAME)
+                .addParameter(JsonGenerator.class, JSON_GENERATOR_PARAMETER_NAME)
+                .addParameter(SerializerProvider.class, SERIALIZER_PROVIDER_PARAMETER_NAME)
+                .addParameter(TypeSerializer.class, "typeSerializer")
+                .addException(IOException.class)
+                .addStatement("typeSerializer.writeTypePrefixForObject($L, $L)", VALUE_PARAMETER_NAME, JSON_GENERATOR_PARAMETER_NAME)
+                .addStatement("serializeFields($L, $L, $L)", VALUE_PARAMETER_NAME, JSON_GENERATOR_PARAMETER_NAME, SERIALIZER_PROVIDER_PARAMETER_NAME)
+                .addStatement("typeSerializer.writeTypeSuffixForObject($L, $L)", VALUE_PARAMETER_NAME, JSON_GENERATOR_PARAMETER_NAME)
+                .build();
+
+        serializerClassBuilder.addMethod(serializeMethod)
+                .addMethod(serializeWithTypeMethod)
+                .addMethod(serializeFieldsBuilder.build());
+
+        if (resolvable) {
+            serializerClassBuilder.addSuperinterface(ResolvableSerializer.class)
+                    .addMethod(resolveMethodBuilder.build());
+        }
+
+        PackageElement packageElement = this.elementUtils.getPackageOf(typeElement);
+        JavaFile javaFile = JavaFile
+                .builder(packageElement.getQualifiedName().toString(), serializerClassBuilder.build())
+                .build();
+
+        try {
+            this.sourceWriter.write(javaFile);
+        } catch (IOException e) {
+            this.processorUtil.error(typeElement, e.getMessage());
+        }
+    }
+
+    /**
+     * Simple values can be written straight to the generator, as long as the accessor
+     * of the interface returns that exact type (and not a generic parameter filled in by
+     * a child interface), and has no Jackson annotations changing how it is written.
+     *
+     * @return The name of the generator method able to write the value, if there is one
+     */
+    private Optional<String> writeMethod(MethodDetail methodDetail) {
+        TypeMirror returnType = methodDetail.getReturnType();
+        if (methodDetail.getDifferentReturnType().isPresent() || this.processorUtil.hasJacksonAnnotations(methodDetail.getElement())
+                || (returnType.getKind() != TypeKind.DECLARED && !returnType.getKind().isPrimitive())) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(WRITE_METHODS.get(TypeName.get(returnType)));
+    }
+
+    /**
+     * @return true if every value of the type will be serialized with the same serializer
+     */
+    private boolean hasStaticSerializer(TypeMirror type) {
+        if (type.getKind().isPrimitive() || type.getKind() == TypeKind.ARRAY) {
+            return true;
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        return element.getKind() == ElementKind.ENUM || element.getModifiers().contains(Modifier.FINAL);
+    }
+
+    /**
+     * @return true if the exception thrown is a checked exception that is not an {@link IOException}
+     */
+    private boolean needsWrapping(TypeMirror thrownType) {
+        return !isSubtype(thrownType, IOException.class)
+                && !isSubtype(thrownType, RuntimeException.class)
+                && !isSubtype(thrownType, Error.class);
+    }
+
+    private boolean isSubtype(TypeMirror type, Class<?> clazz) {
+        return this.typeUtils.isSubtype(type, this.processorUtil.getType(clazz));
+    }
+}
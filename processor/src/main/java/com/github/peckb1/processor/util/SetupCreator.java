@@ -2,92 +2,396 @@ package com.github.peckb1.processor.util;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.Version;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.Module.SetupContext;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.github.peckb1.processor.AutoJackson;
+import com.github.peckb1.processor.AutoJacksonDeserializers;
+import com.github.peckb1.processor.AutoJacksonSerializers;
+import com.github.peckb1.processor.AutoJacksonWarmUp;
+import com.github.peckb1.processor.WarmUpDocuments;
+import com.github.peckb1.processor.WarmUpReport;
 import com.google.common.collect.ImmutableList;
 import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 
 import javax.annotation.processing.Filer;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
-import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.NONE;
 import static com.fasterxml.jackson.annotation.PropertyAccessor.ALL;
 import static com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES;
 import static com.github.peckb1.processor.util.DeserializerCreator.DESERIALIZER_CLASS_NAME_SUFFIX;
+import static com.github.peckb1.processor.util.SerializerCreator.SERIALIZER_CLASS_NAME_SUFFIX;
+import static com.github.peckb1.processor.util.DeserializerCreator.WARM_UP_JSON_METHOD_NAME;
 
 /**
- * Creates a single class that can be used to setup an {@link ObjectMapper}
- * with the deserializers and Jackson settings needed to allow the
- * {@link AutoJackson} to function correctly.
+ * Creates the Jackson {@link Module} holding the serializers and deserializers created for
+ * every class annotated with our {@link AutoJackson} annotation, along with a single class that
+ * can be used to setup an {@link ObjectMapper} with that module and the Jackson settings needed
+ * to allow the {@link AutoJackson} to function correctly.
  * <p>
- * The class created is only a helper method to avoid the boiler plate of
- * adding in each deserializer created for each class annotated with
- * our {@link AutoJackson} annotation. But the steps
- * performed inside can be done manually by the user if wanted.
+ * The module is listed in {@code META-INF/services}, so that
+ * {@link ObjectMapper#findAndRegisterModules()} finds the module of every jar built with
+ * the processor. Its fully qualified name is given through the {@value #MODULE_OPTION} processor
+ * option, or else is made up of the package shared by all of the annotated interfaces and a hash
+ * of their names, such as {@code com.example.AutoJackson1a2b3c4dModule}, so that no two jars
+ * built with the processor share a module. The setup class sits next to the module and is named
+ * after it, {@code com.example.MyModelModule} coming with {@code com.example.MyModelSetup}.
+ * <p>
+ * The setup class is only a helper method to avoid the boiler plate of
+ * registering the module and settings. But the steps
+ * performed inside can be done manually by the user if wanted. It can also warm up
+ * a configured {@link ObjectMapper} for every interface, so the first documents read
+ * after startup are not slowed down by Jackson looking up and resolving serializers.
  */
 public class SetupCreator {
 
+    public static final String MODULE_OPTION = "autojackson.module";
+    public static final String MODULE_CLASS_PREFIX = "AutoJackson";
+    public static final String MODULE_CLASS_SUFFIX = "Module";
+    public static final String SETUP_CLASS_SUFFIX = "Setup";
+
+    private static final String DEFAULT_PACKAGE = "peckb1.autojackson";
+
+    private static final String MODULE_NAME_FIELD_NAME = "MODULE_NAME";
+    private static final String DESERIALIZERS_FIELD_NAME = "deserializers";
+    private static final String SERIALIZERS_FIELD_NAME = "serializers";
+    private static final String MODULE_SERVICES_FILE = "META-INF/services/" + Module.class.getCanonicalName();
+
     private final Filer filer;
+    private final SourceWriter sourceWriter;
     private final ProcessorUtil processorUtil;
+    private final String moduleName;
 
-    public SetupCreator(Filer filer, ProcessorUtil processorUtil) {
+    /**
+     * @param filer         The filer to write the services file with
+     * @param sourceWriter  The writer to write the created classes with
+     * @param processorUtil The shared processor helpers
+     * @param moduleName    The fully qualified name of the module, or null to name it after the package of the interfaces
+     */
+    public SetupCreator(Filer filer, SourceWriter sourceWriter, ProcessorUtil processorUtil, String moduleName) {
         this.filer = filer;
+        this.sourceWriter = sourceWriter;
         this.processorUtil = processorUtil;
+        this.moduleName = moduleName;
     }
 
-    public void createSetupClass(ImmutableList<TypeElement> interfaces) {
+    /**
+     * @param interfaces             All of the interfaces which had a deserializer created for them
+     * @param implementedInterfaces  The interfaces which also had an implementation class and serializer created
+     */
+    public void createSetupClass(ImmutableList<TypeElement> interfaces, ImmutableList<TypeElement> implementedInterfaces) {
+        ClassName moduleClassName = createModuleClassName(interfaces);
+        ClassName setupClassName = createSiblingClassName(moduleClassName, SETUP_CLASS_SUFFIX);
+        createModuleClass(moduleClassName, interfaces, implementedInterfaces);
+        createModuleServicesFile(moduleClassName, interfaces);
 
         MethodSpec constructor = MethodSpec.constructorBuilder()
                 .addModifiers(Modifier.PRIVATE)
                 .build();
 
-        MethodSpec.Builder configurationMethodBuilder = MethodSpec.methodBuilder("configureObjectMapper")
+        MethodSpec configurationMethod = MethodSpec.methodBuilder("configureObjectMapper")
                 .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
                 .addParameter(ParameterSpec.builder(ObjectMapper.class, "objectMapper").build())
-                .addStatement("$T deserialzationModule = new $T()", SimpleModule.class, SimpleModule.class);
+                .addStatement("objectMapper.registerModule(new $T())", moduleClassName)
+                .addStatement("objectMapper.setVisibility($T.$L, $T.$L)", PropertyAccessor.class, ALL, Visibility.class, NONE)
+                .addStatement("objectMapper.configure($T.$L, $L)", DeserializationFeature.class, FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .build();
+
+        TypeSpec.Builder setupClassBuilder = TypeSpec
+                .classBuilder(setupClassName.simpleName())
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addMethod(constructor)
+                .addMethod(configurationMethod)
+                .addMethods(createWarmUpMethods(interfaces, implementedInterfaces));
 
+        // the setup class comes from every interface, which lets incremental builds know to recreate it
+        interfaces.forEach(setupClassBuilder::addOriginatingElement);
+        TypeSpec setupClass = setupClassBuilder.build();
+
+        JavaFile javaFile = JavaFile
+                .builder(setupClassName.packageName(), setupClass)
+                .build();
+
+        try {
+            this.sourceWriter.write(javaFile);
+        } catch (IOException e) {
+            this.processorUtil.error(null, e.getMessage());
+        }
+    }
+
+    /**
+     * Creates the methods warming up every interface, along with every parameterization of an
+     * interface declared by the properties of the interfaces, reading and writing the document
+     * created by each deserializer unless told not to
+     */
+    private List<MethodSpec> createWarmUpMethods(ImmutableList<TypeElement> interfaces, ImmutableList<TypeElement> implementedInterfaces) {
+        TypeName reportsType = ParameterizedTypeName.get(List.class, WarmUpReport.class);
+
+        MethodSpec warmUpWithRoundTrips = MethodSpec.methodBuilder("warmUp")
+                .addJavadoc("Warms up the object mapper for every interface, including a round trip of each\n")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(reportsType)
+                .addParameter(ObjectMapper.class, "objectMapper")
+                .addStatement("return warmUp(objectMapper, true)")
+                .build();
+
+        MethodSpec.Builder warmUpBuilder = MethodSpec.methodBuilder("warmUp")
+                .addJavadoc("Warms up the object mapper for every interface, which should already be configured for them\n")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(reportsType)
+                .addParameter(ObjectMapper.class, "objectMapper")
+                .addParameter(TypeName.BOOLEAN, "roundTrips")
+                .addStatement("$T reports = new $T<>()", reportsType, ArrayList.class)
+                .addStatement("$T documents = null", WarmUpDocuments.class)
+                .beginControlFlow("if (roundTrips)")
+                .addStatement("documents = new $T()", WarmUpDocuments.class);
+
+        interfaces.forEach(element -> warmUpBuilder.addStatement("documents.add($L, $T::$L)",
+                createInterfaceClass(element), createDeserializerClassName(element), WARM_UP_JSON_METHOD_NAME));
+        warmUpBuilder.endControlFlow();
+
+        interfaces.forEach(element -> warmUpBuilder.addStatement("reports.add($T.warmUp(objectMapper, $L, $L, documents))",
+                AutoJacksonWarmUp.class, createInterfaceClass(element), createImplementationClass(element, implementedInterfaces)));
+
+        Collection<DeclaredType> parameterizations = loadParameterizations(interfaces);
+        if (!parameterizations.isEmpty()) {
+            warmUpBuilder.addStatement("$T typeFactory = objectMapper.getTypeFactory()", TypeFactory.class);
+            parameterizations.forEach(parameterization -> warmUpBuilder.addStatement("reports.add($T.warmUp(objectMapper, $L, $L, documents))",
+                    AutoJacksonWarmUp.class, this.processorUtil.createJavaType(parameterization, "typeFactory"),
+                    createImplementationClass((TypeElement) parameterization.asElement(), implementedInterfaces)));
+        }
+
+        return Arrays.asList(warmUpWithRoundTrips, warmUpBuilder.addStatement("return reports").build());
+    }
+
+    /**
+     * @return The code for the class of the interface, such as {@code Sample.class}
+     */
+    private CodeBlock createInterfaceClass(TypeElement element) {
+        return element.getTypeParameters().isEmpty()
+                ? CodeBlock.of("$T.class", element)
+                : CodeBlock.of("$L.class", element.getQualifiedName());
+    }
+
+    /**
+     * @return The code for the implementation class of the interface, or null if the interface has none
+     */
+    private CodeBlock createImplementationClass(TypeElement element, ImmutableList<TypeElement> implementedInterfaces) {
+        return implementedInterfaces.contains(element)
+                ? CodeBlock.of("$T.class", this.processorUtil.createImplementationClassName(element))
+                : CodeBlock.of("null");
+    }
+
+    private ClassName createDeserializerClassName(TypeElement element) {
+        return ClassName.get(ClassName.get(element).packageName(), element.getSimpleName() + DESERIALIZER_CLASS_NAME_SUFFIX);
+    }
+
+    /**
+     * Loads the parameterizations of interfaces, such as {@code Gobo<Long>}, the properties
+     * declared by the interfaces are made up of. Jackson resolves a deserializer for each of
+     * them on top of the one for the interface itself.
+     *
+     * @return Each parameterization, once
+     */
+    private Collection<DeclaredType> loadParameterizations(ImmutableList<TypeElement> interfaces) {
+        Map<String, DeclaredType> parameterizations = new LinkedHashMap<>();
+        interfaces.forEach(element -> ElementFilter.methodsIn(element.getEnclosedElements())
+                .forEach(method -> addParameterizations(method.getReturnType(), parameterizations)));
+        return parameterizations.values();
+    }
+
+    private void addParameterizations(TypeMirror type, Map<String, DeclaredType> parameterizations) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            addParameterizations(((ArrayType) type).getComponentType(), parameterizations);
+        } else if (type.getKind() == TypeKind.DECLARED) {
+            DeclaredType declaredType = (DeclaredType) type;
+            if (declaredType.asElement().getAnnotation(AutoJackson.class) != null
+                    && !declaredType.getTypeArguments().isEmpty()
+                    && !this.processorUtil.containsTypeVariable(declaredType)) {
+                parameterizations.putIfAbsent(TypeName.get(declaredType).toString(), declaredType);
+            }
+            declaredType.getTypeArguments().forEach(typeArgument -> addParameterizations(typeArgument, parameterizations));
+        }
+    }
+
+    /**
+     * Creates the module, which registers a new instance of every serializer and deserializer
+     * for each mapper the module is set up on
+     */
+    private void createModuleClass(ClassName moduleClassName,
+                                   ImmutableList<TypeElement> interfaces,
+                                   ImmutableList<TypeElement> implementedInterfaces) {
+        MethodSpec.Builder constructorBuilder = MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addStatement("super($L, $T.unknownVersion())", MODULE_NAME_FIELD_NAME, Version.class);
+
+        // the serializers and deserializers are created anew for each mapper, as they hold on to what they resolve from it
         interfaces.forEach(element -> {
             String deserializationPackage = ClassName.get(element).packageName();
             ClassName deserializerClassName = ClassName.get(deserializationPackage, element.getSimpleName() + DESERIALIZER_CLASS_NAME_SUFFIX);
             if (element.getTypeParameters().isEmpty()) {
-                configurationMethodBuilder.addStatement("deserialzationModule.addDeserializer($T.class, new $T())", element, deserializerClassName);
+                constructorBuilder.addStatement("this.$L.add($T.class, $T::new)", DESERIALIZERS_FIELD_NAME, element, deserializerClassName);
             } else {
-                configurationMethodBuilder.addStatement("deserialzationModule.addDeserializer($L.class, new $T())", element.getQualifiedName(), deserializerClassName);
+                constructorBuilder.addStatement("this.$L.add($L.class, $T::new)", DESERIALIZERS_FIELD_NAME, element.getQualifiedName(), deserializerClassName);
             }
         });
 
-        configurationMethodBuilder
-                .addStatement("objectMapper.registerModule(deserialzationModule)")
-                .addStatement("objectMapper.setVisibility($T.$L, $T.$L)", PropertyAccessor.class, ALL, Visibility.class, NONE)
-                .addStatement("objectMapper.configure($T.$L, $L)", DeserializationFeature.class, FAIL_ON_UNKNOWN_PROPERTIES, false)
-                .build();
+        implementedInterfaces.forEach(element -> {
+            String serializationPackage = ClassName.get(element).packageName();
+            ClassName implementationClassName = this.processorUtil.createImplementationClassName(element);
+            ClassName serializerClassName = ClassName.get(serializationPackage, element.getSimpleName() + SERIALIZER_CLASS_NAME_SUFFIX);
+            constructorBuilder.addStatement("this.$L.add($T.class, $T::new)", SERIALIZERS_FIELD_NAME, implementationClassName, serializerClassName);
+        });
 
-        TypeSpec setupClass = TypeSpec
-                .classBuilder("AutoJacksonSetup")
+        TypeSpec.Builder moduleClassBuilder = TypeSpec
+                .classBuilder(moduleClassName.simpleName())
+                .superclass(SimpleModule.class)
                 .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
-                .addMethod(constructor)
-                .addMethod(configurationMethodBuilder.build())
-                .build();
+                .addField(FieldSpec.builder(String.class, MODULE_NAME_FIELD_NAME, Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("$S", moduleClassName.toString())
+                        .build())
+                .addField(FieldSpec.builder(AutoJacksonDeserializers.class, DESERIALIZERS_FIELD_NAME, Modifier.PRIVATE, Modifier.FINAL)
+                        .initializer("new $T()", AutoJacksonDeserializers.class)
+                        .build())
+                .addField(FieldSpec.builder(AutoJacksonSerializers.class, SERIALIZERS_FIELD_NAME, Modifier.PRIVATE, Modifier.FINAL)
+                        .initializer("new $T()", AutoJacksonSerializers.class)
+                        .build())
+                .addMethod(constructorBuilder.build())
+                .addMethod(MethodSpec.methodBuilder("setupModule")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .addParameter(SetupContext.class, "context")
+                        .addStatement("super.setupModule(context)")
+                        .addStatement("context.addSerializers(this.$L)", SERIALIZERS_FIELD_NAME)
+                        .addStatement("context.addDeserializers(this.$L)", DESERIALIZERS_FIELD_NAME)
+                        .build());
+        interfaces.forEach(moduleClassBuilder::addOriginatingElement);
 
         JavaFile javaFile = JavaFile
-                .builder("peckb1.autojackson", setupClass)
+                .builder(moduleClassName.packageName(), moduleClassBuilder.build())
                 .build();
 
         try {
-            javaFile.writeTo(this.filer);
+            this.sourceWriter.write(javaFile);
+        } catch (IOException e) {
+            this.processorUtil.error(null, e.getMessage());
+        }
+    }
+
+    /**
+     * Lists the module in {@code META-INF/services}, where {@link ObjectMapper#findModules()} looks for modules
+     */
+    private void createModuleServicesFile(ClassName moduleClassName, ImmutableList<TypeElement> interfaces) {
+        try {
+            FileObject servicesFile = this.filer.createResource(StandardLocation.CLASS_OUTPUT, "", MODULE_SERVICES_FILE,
+                    interfaces.toArray(new TypeElement[interfaces.size()]));
+            try (Writer writer = servicesFile.openWriter()) {
+                writer.write(moduleClassName.reflectionName());
+                writer.write("\n");
+            }
         } catch (IOException e) {
             this.processorUtil.error(null, e.getMessage());
         }
     }
 
+    /**
+     * @param interfaces All of the interfaces which had a deserializer created for them
+     * @return The name given through the processor option, or a module class inside the package
+     * shared by all of the interfaces, named after a hash of their names
+     */
+    public ClassName createModuleClassName(ImmutableList<TypeElement> interfaces) {
+        if (this.moduleName != null && !this.moduleName.isEmpty()) {
+            int lastDot = this.moduleName.lastIndexOf('.');
+            return lastDot < 0
+                    ? ClassName.get("", this.moduleName)
+                    : ClassName.get(this.moduleName.substring(0, lastDot), this.moduleName.substring(lastDot + 1));
+        }
+
+        List<String> sharedPackage = null;
+        List<String> interfaceNames = new ArrayList<>(interfaces.size());
+        for (TypeElement element : interfaces) {
+            interfaceNames.add(element.getQualifiedName().toString());
+            List<String> elementPackage = Arrays.asList(ClassName.get(element).packageName().split("\\."));
+            if (sharedPackage == null) {
+                sharedPackage = elementPackage;
+            } else {
+                int shared = 0;
+                while (shared < sharedPackage.size() && shared < elementPackage.size()
+                        && sharedPackage.get(shared).equals(elementPackage.get(shared))) {
+                    shared++;
+                }
+                sharedPackage = sharedPackage.subList(0, shared);
+            }
+        }
+
+        // the package alone is shared by every jar built from the same group, the interfaces of each jar are not
+        Collections.sort(interfaceNames);
+        String packageName = sharedPackage == null ? "" : String.join(".", sharedPackage);
+        return ClassName.get(packageName.isEmpty() ? DEFAULT_PACKAGE : packageName,
+                MODULE_CLASS_PREFIX + hash(String.join("\n", interfaceNames)) + MODULE_CLASS_SUFFIX);
+    }
+
+    /**
+     * @param moduleClassName The module created for the interfaces
+     * @param suffix          What the class is, such as {@value #SETUP_CLASS_SUFFIX}
+     * @return A class next to the module, named after the module with its {@value #MODULE_CLASS_SUFFIX} suffix swapped for the given one
+     */
+    public static ClassName createSiblingClassName(ClassName moduleClassName, String suffix) {
+        String moduleSimpleName = moduleClassName.simpleName();
+        String baseName = moduleSimpleName.endsWith(MODULE_CLASS_SUFFIX) && moduleSimpleName.length() > MODULE_CLASS_SUFFIX.length()
+                ? moduleSimpleName.substring(0, moduleSimpleName.length() - MODULE_CLASS_SUFFIX.length())
+                : moduleSimpleName;
+        return ClassName.get(moduleClassName.packageName(), baseName + suffix);
+    }
+
+    /**
+     * @return The first four bytes of the SHA-256 hash of the text, in hex
+     */
+    private static String hash(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 4; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
 }
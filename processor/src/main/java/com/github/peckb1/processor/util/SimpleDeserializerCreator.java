@@ -1,30 +1,710 @@
 package com.github.peckb1.processor.util;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
 import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.github.peckb1.processor.AutoJackson;
+import com.github.peckb1.processor.AutoJacksonProperties;
+import com.github.peckb1.processor.LazyValue;
+import com.github.peckb1.processor.ResumableDeserializer;
+import com.github.peckb1.processor.WarmUpDocuments;
+import com.google.common.base.CaseFormat;
+import com.google.common.collect.ImmutableMap;
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.MethodSpec.Builder;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
 
-import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
 import javax.lang.model.element.Name;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.type.WildcardType;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
 
 /**
  * A {@link DeserializerCreator} meant for simple interfaces annotated
  * with {@link AutoJackson} that do not specify any
  * classes inside the {@link AutoJackson#type()} field.
+ * <p>
+ * Unless {@link AutoJackson#streaming()} is turned off the deserializer walks the
+ * tokens of the {@link com.fasterxml.jackson.core.JsonParser} once, and calls the
+ * constructor of the implementation class directly. Properties which are not simple
+ * values are read using deserializers resolved once when Jackson first creates the
+ * deserializer, made contextual for a {@link BeanProperty} of the accessor so annotations
+ * such as {@code @JsonFormat} on the accessor apply. Accessors with Jackson annotations
+ * always go through such a deserializer. Properties made up of other {@link AutoJackson} interfaces, including
+ * {@link Optional}s, {@link List}s and arrays of them, call the deserializers of those
+ * interfaces directly. When {@link AutoJackson#lazy()} is set, nested objects and arrays
+ * are instead captured into a {@link LazyValue} to be decoded later. Property names are
+ * matched against their precomputed encoded form while they arrive in the order the
+ * generated serializer writes them. The deserializer is also a {@link ResumableDeserializer},
+ * so the deserializer of an interface with a type property can hand over the parser as soon
+ * as it has read the type.
+ * <p>
+ * Properties relying on a type variable of the interface, such as {@code X getX()} on
+ * {@code Gobo<X extends Number>}, are read using the bound of the variable. When Jackson asks
+ * for a parameterization of the interface, such as {@code Gobo<BigDecimal>}, the deserializer
+ * becomes a {@link ContextualDeserializer} handing back a copy of itself resolved for that
+ * parameterization. The copies are kept by their {@link JavaType}, so each parameterization is
+ * only resolved once by each mapper. As the module hands every mapper a deserializer of its own,
+ * the copies, and what they resolved, are never shared with a mapper configured differently.
  */
 public class SimpleDeserializerCreator extends DeserializerCreator {
 
-    public SimpleDeserializerCreator(Types typeUtils, Elements elementUtils, Filer filer, ProcessorUtil processorUtil) {
-        super(typeUtils, elementUtils, filer, processorUtil);
+    private static final String TOKEN_VARIABLE_NAME = "token";
+    private static final String VALUE_VARIABLE_SUFFIX = "Value";
+    private static final String PRESENT_VARIABLE_SUFFIX = "Present";
+    private static final String DESERIALIZER_FIELD_SUFFIX = "Deserializer";
+    private static final String LINKED_DESERIALIZER_FIELD_SUFFIX = "AutoJacksonDeserializer";
+    private static final String LINKED_READ_METHOD_PREFIX = "read";
+
+    private static final String VALUE_TYPE_FIELD_NAME = "valueType";
+    private static final String SPECIALIZED_DESERIALIZERS_FIELD_NAME = "specializedDeserializers";
+
+    private static final String FIELD_NAMES_FIELD_NAME = "FIELD_NAMES";
+    private static final String NEXT_FIELD_METHOD_NAME = "nextField";
+    private static final String CURRENT_FIELD_METHOD_NAME = "currentField";
+    private static final String FIELD_INDEX_METHOD_NAME = "fieldIndex";
+    private static final String DESERIALIZE_FIELDS_METHOD_NAME = "deserializeFields";
+    private static final int UNKNOWN_FIELD = -1;
+    private static final int END_OF_OBJECT = -2;
+
+    /**
+     * The {@link com.fasterxml.jackson.databind.deser.std.StdDeserializer} parse methods
+     * we can use directly for simple values, rather than going through another deserializer.
+     * The boxed types go through their deserializers, as Jackson only keeps parse methods for
+     * the primitives.
+     */
+    private static final ImmutableMap<TypeName, String> PARSE_METHODS = ImmutableMap.<TypeName, String>builder()
+            .put(TypeName.INT, "_parseIntPrimitive")
+            .put(TypeName.LONG, "_parseLongPrimitive")
+            .put(TypeName.SHORT, "_parseShortPrimitive")
+            .put(TypeName.BOOLEAN, "_parseBooleanPrimitive")
+            .put(TypeName.FLOAT, "_parseFloatPrimitive")
+            .put(TypeName.DOUBLE, "_parseDoublePrimitive")
+            .put(ClassName.get(String.class), "_parseString")
+            .build();
+
+    private final MethodDetailLoader methodDetailLoader;
+
+    public SimpleDeserializerCreator(Types typeUtils, Elements elementUtils, SourceWriter sourceWriter, ProcessorUtil processorUtil, MethodDetailLoader methodDetailLoader) {
+        super(typeUtils, elementUtils, sourceWriter, processorUtil);
+        this.methodDetailLoader = methodDetailLoader;
     }
 
     @Override
     protected MethodSpec implementDeserializeMethod(TypeElement typeElement, Builder deserializeMethodBuilder) {
+        if (!typeElement.getAnnotation(AutoJackson.class).streaming()) {
+            return implementTreeDeserializeMethod(typeElement, deserializeMethodBuilder);
+        }
+
+        TypeName returnTypeName = TypeName.get(this.typeUtils.getDeclaredType(typeElement));
+
+        // make sure we are inside of the object we need to read
+        return deserializeMethodBuilder.addStatement("$T $L = $L.getCurrentToken()", JsonToken.class, TOKEN_VARIABLE_NAME, JSON_PARSER_PARAMETER_NAME)
+                .beginControlFlow("if ($L == $T.$L)", TOKEN_VARIABLE_NAME, JsonToken.class, JsonToken.START_OBJECT)
+                .addStatement("return $L($L, $L, $L($L, 0), false)", DESERIALIZE_FIELDS_METHOD_NAME,
+                        JSON_PARSER_PARAMETER_NAME, DESERIALIZATION_CONTEXT_PARAMETER_NAME, NEXT_FIELD_METHOD_NAME, JSON_PARSER_PARAMETER_NAME)
+                .nextControlFlow("else if ($L == $T.$L || $L == $T.$L)",
+                        TOKEN_VARIABLE_NAME, JsonToken.class, JsonToken.FIELD_NAME, TOKEN_VARIABLE_NAME, JsonToken.class, JsonToken.END_OBJECT)
+                .addStatement("return $L($L, $L, $L($L), false)", DESERIALIZE_FIELDS_METHOD_NAME,
+                        JSON_PARSER_PARAMETER_NAME, DESERIALIZATION_CONTEXT_PARAMETER_NAME, CURRENT_FIELD_METHOD_NAME, JSON_PARSER_PARAMETER_NAME)
+                .endControlFlow()
+                .addStatement("return ($T) $L.handleUnexpectedToken(handledType(), $L)", returnTypeName, DESERIALIZATION_CONTEXT_PARAMETER_NAME, JSON_PARSER_PARAMETER_NAME)
+                .build();
+    }
+
+    /**
+     * Creates the method reading the fields of the object, starting at the given field. Both the deserialize
+     * method and the entry point of {@link ResumableDeserializer} end up here, the latter with the parser
+     * already at the value of the first field.
+     */
+    private MethodSpec createDeserializeFieldsMethod(TypeElement typeElement) {
+        Set<MethodDetail> methods = this.methodDetailLoader.loadMethodDetails(typeElement);
+        TypeName returnTypeName = TypeName.get(this.typeUtils.getDeclaredType(typeElement));
+
+        MethodSpec.Builder deserializeMethodBuilder = MethodSpec.methodBuilder(DESERIALIZE_FIELDS_METHOD_NAME)
+                .addAnnotation(AnnotationSpec.builder(SuppressWarnings.class)
+                        .addMember("value", "$S", "unchecked")
+                        .build())
+                .addModifiers(Modifier.PRIVATE)
+                .returns(returnTypeName)
+                .addParameter(JsonParser.class, JSON_PARSER_PARAMETER_NAME)
+                .addParameter(DeserializationContext.class, DESERIALIZATION_CONTEXT_PARAMETER_NAME)
+                .addParameter(TypeName.INT, "field")
+                .addParameter(TypeName.BOOLEAN, "atValue")
+                .addException(IOException.class);
+
+        // a local variable to hold each property until we can call the constructor
+        methods.forEach(methodDetail -> {
+            TypeMirror returnType = methodDetail.getReturnType();
+            String memberVariableName = this.processorUtil.createMemberVariableName(methodDetail.getElement());
+            TypeName localTypeName = this.processorUtil.createLocalTypeName(returnType);
+            if (this.processorUtil.isLazy(typeElement, returnType)) {
+                localTypeName = ParameterizedTypeName.get(ClassName.get(LazyValue.class), localTypeName.box());
+            }
+            deserializeMethodBuilder.addStatement("$T $L = $L", localTypeName, memberVariableName + VALUE_VARIABLE_SUFFIX, defaultValue(localTypeName));
+            if (!this.processorUtil.isOptional(returnType)) {
+                deserializeMethodBuilder.addStatement("boolean $L = false", memberVariableName + PRESENT_VARIABLE_SUFFIX);
+            }
+        });
+
+        // walk each of the fields inside the object, expecting them in the order we write them
+        deserializeMethodBuilder.beginControlFlow("for (; field != $L; field = $L($L, field + 1))",
+                END_OF_OBJECT, NEXT_FIELD_METHOD_NAME, JSON_PARSER_PARAMETER_NAME)
+                .addStatement("$T $L = atValue ? $L.getCurrentToken() : $L.nextToken()",
+                        JsonToken.class, TOKEN_VARIABLE_NAME, JSON_PARSER_PARAMETER_NAME, JSON_PARSER_PARAMETER_NAME)
+                .addStatement("atValue = false")
+                .beginControlFlow("switch (field)");
+
+        int fieldIndex = 0;
+        for (MethodDetail methodDetail : methods) {
+            TypeMirror returnType = methodDetail.getReturnType();
+            String memberVariableName = this.processorUtil.createMemberVariableName(methodDetail.getElement());
+            deserializeMethodBuilder.beginControlFlow("case $L:", fieldIndex++)
+                    .addStatement("$L = $L", memberVariableName + VALUE_VARIABLE_SUFFIX, createReadValue(typeElement, methodDetail));
+            if (!this.processorUtil.isOptional(returnType)) {
+                deserializeMethodBuilder.addStatement("$L = true", memberVariableName + PRESENT_VARIABLE_SUFFIX);
+            }
+            deserializeMethodBuilder.addStatement("break")
+                    .endControlFlow();
+        }
+
+        deserializeMethodBuilder.beginControlFlow("default:")
+                .addStatement("handleUnknownProperty($L, $L, handledType(), $L.getCurrentName())",
+                        JSON_PARSER_PARAMETER_NAME, DESERIALIZATION_CONTEXT_PARAMETER_NAME, JSON_PARSER_PARAMETER_NAME)
+                .endControlFlow()
+                .endControlFlow()
+                .endControlFlow();
+
+        // check for any missing properties, matching what Jackson does for creator properties
+        methods.forEach(methodDetail -> {
+            TypeMirror returnType = methodDetail.getReturnType();
+            String memberVariableName = this.processorUtil.createMemberVariableName(methodDetail.getElement());
+            if (this.processorUtil.isOptional(returnType) && this.processorUtil.isLazy(typeElement, returnType)) {
+                deserializeMethodBuilder.beginControlFlow("if ($L == null)", memberVariableName + VALUE_VARIABLE_SUFFIX)
+                        .addStatement("$L = $T.of($T.empty())", memberVariableName + VALUE_VARIABLE_SUFFIX, LazyValue.class, Optional.class)
+                        .endControlFlow();
+            } else if (this.processorUtil.isOptional(returnType) && isLinkedProperty(methodDetail)) {
+                deserializeMethodBuilder.beginControlFlow("if ($L == null)", memberVariableName + VALUE_VARIABLE_SUFFIX)
+                        .addStatement("$L = $T.empty()", memberVariableName + VALUE_VARIABLE_SUFFIX, Optional.class)
+                        .endControlFlow();
+            } else if (this.processorUtil.isOptional(returnType)) {
+                deserializeMethodBuilder.beginControlFlow("if ($L == null)", memberVariableName + VALUE_VARIABLE_SUFFIX)
+                        .addStatement("$L = ($T) this.$L.getNullValue($L)", memberVariableName + VALUE_VARIABLE_SUFFIX,
+                                this.processorUtil.createLocalTypeName(returnType), memberVariableName + DESERIALIZER_FIELD_SUFFIX, DESERIALIZATION_CONTEXT_PARAMETER_NAME)
+                        .endControlFlow();
+            } else {
+                deserializeMethodBuilder.beginControlFlow("if (!$L)", memberVariableName + PRESENT_VARIABLE_SUFFIX)
+                        .addStatement("$L.reportMappingException(\"Missing required creator property '%s'\", $S)",
+                                DESERIALIZATION_CONTEXT_PARAMETER_NAME, memberVariableName)
+                        .endControlFlow();
+            }
+        });
+
+        String constructorArguments = methods.stream()
+                .map(methodDetail -> this.processorUtil.createMemberVariableName(methodDetail.getElement()) + VALUE_VARIABLE_SUFFIX)
+                .collect(Collectors.joining(", "));
+
+        return deserializeMethodBuilder.addStatement("return new $T($L)", this.processorUtil.createImplementationClassName(typeElement), constructorArguments)
+                .build();
+    }
+
+    @Override
+    protected MethodSpec createConstructor(TypeElement typeElement) {
+        if (!isParameterized(typeElement)) {
+            return super.createConstructor(typeElement);
+        }
+        return MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addStatement("this(null, new $T<>())", ConcurrentHashMap.class)
+                .build();
+    }
+
+    @Override
+    protected void addDeserializerMembers(TypeElement typeElement, TypeSpec.Builder deserializationClassBuilder) {
+        addWarmUpJson(typeElement, deserializationClassBuilder);
+
+        if (!typeElement.getAnnotation(AutoJackson.class).streaming()) {
+            return;
+        }
+
+        addFieldMatching(typeElement, deserializationClassBuilder);
+
+        TypeName returnTypeName = TypeName.get(this.typeUtils.getDeclaredType(typeElement));
+        deserializationClassBuilder.addSuperinterface(ParameterizedTypeName.get(ClassName.get(ResumableDeserializer.class), returnTypeName))
+                .addMethod(MethodSpec.methodBuilder("deserializeFromValue")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(returnTypeName)
+                        .addParameter(JsonParser.class, JSON_PARSER_PARAMETER_NAME)
+                        .addParameter(DeserializationContext.class, DESERIALIZATION_CONTEXT_PARAMETER_NAME)
+                        .addException(IOException.class)
+                        .addStatement("return $L($L, $L, $L($L.getCurrentName()), true)", DESERIALIZE_FIELDS_METHOD_NAME,
+                                JSON_PARSER_PARAMETER_NAME, DESERIALIZATION_CONTEXT_PARAMETER_NAME, FIELD_INDEX_METHOD_NAME, JSON_PARSER_PARAMETER_NAME)
+                        .build())
+                .addMethod(createDeserializeFieldsMethod(typeElement));
+
+        ParameterizedTypeName deserializerType = ParameterizedTypeName.get(JsonDeserializer.class, Object.class);
+
+        MethodSpec.Builder resolveMethodBuilder = MethodSpec.methodBuilder("resolve")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(DeserializationContext.class, DESERIALIZATION_CONTEXT_PARAMETER_NAME)
+                .addException(JsonMappingException.class)
+                .addStatement("$T typeFactory = $L.getTypeFactory()", TypeFactory.class, DESERIALIZATION_CONTEXT_PARAMETER_NAME);
+
+        Map<TypeElement, String> linkedDeserializerFields = new LinkedHashMap<>();
+
+        // any property we can not parse directly gets a deserializer looked up once
+        this.methodDetailLoader.loadMethodDetails(typeElement).forEach(methodDetail -> {
+            TypeMirror returnType = methodDetail.getReturnType();
+            String memberVariableName = this.processorUtil.createMemberVariableName(methodDetail.getElement());
+            if (!this.processorUtil.isLazy(typeElement, returnType) && isLinkedProperty(methodDetail)) {
+                // properties made up of other AutoJackson interfaces are read by a method of our own
+                deserializationClassBuilder.addMethod(createLinkedReadMethod(returnType, memberVariableName, linkedDeserializerFields));
+            } else if (this.processorUtil.isLazy(typeElement, returnType) || !propertyParseMethod(methodDetail).isPresent()) {
+                // lazy properties are captured as is, and hold on to the deserializer to decode them with later on
+                String fieldName = memberVariableName + DESERIALIZER_FIELD_SUFFIX;
+                deserializationClassBuilder.addField(FieldSpec.builder(deserializerType, fieldName, Modifier.PRIVATE).build());
+                resolveMethodBuilder.addStatement("this.$L = $T.findDeserializer($L, $T.create($L.getConfig(), handledType(), $S, $S, $L, $L))",
+                        fieldName, AutoJacksonProperties.class, DESERIALIZATION_CONTEXT_PARAMETER_NAME, AutoJacksonProperties.class,
+                        DESERIALIZATION_CONTEXT_PARAMETER_NAME, methodDetail.getElement().getSimpleName(), memberVariableName,
+                        createPropertyJavaType(typeElement, methodDetail), !this.processorUtil.isOptional(returnType));
+            }
+        });
+
+        // and those methods share the deserializer of each linked interface
+        linkedDeserializerFields.forEach((linkedElement, fieldName) -> {
+            deserializationClassBuilder.addField(FieldSpec.builder(deserializerType, fieldName, Modifier.PRIVATE).build());
+            resolveMethodBuilder.addStatement("this.$L = $L.findRootValueDeserializer(typeFactory.constructType($T.class))",
+                    fieldName, DESERIALIZATION_CONTEXT_PARAMETER_NAME, ClassName.get(linkedElement));
+        });
+
+        deserializationClassBuilder.addSuperinterface(ResolvableDeserializer.class)
+                .addMethod(resolveMethodBuilder.build())
+                .addMethod(MethodSpec.methodBuilder("isCachable")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(TypeName.BOOLEAN)
+                        .addStatement("return true")
+                        .build());
+
+        if (isParameterized(typeElement)) {
+            addSpecialization(typeElement, deserializationClassBuilder);
+        }
+    }
+
+    /**
+     * Makes the deserializer contextual, handing back a copy of itself resolved for the parameterization
+     * of the interface Jackson is asking for. The copies share the cache of the deserializer the mapper
+     * looked up, keyed by their {@link JavaType}.
+     */
+    private void addSpecialization(TypeElement typeElement, TypeSpec.Builder deserializationClassBuilder) {
+        ClassName deserializerClassName = createDeserializerClassName(typeElement);
+        ParameterizedTypeName cacheType = ParameterizedTypeName.get(ClassName.get(ConcurrentMap.class), ClassName.get(JavaType.class), deserializerClassName);
+
+        deserializationClassBuilder.addSuperinterface(ContextualDeserializer.class)
+                .addField(FieldSpec.builder(JavaType.class, VALUE_TYPE_FIELD_NAME, Modifier.PRIVATE, Modifier.FINAL)
+                        .addJavadoc("The parameterization this deserializer was resolved for, or null for the bounds of the type variables\n")
+                        .build())
+                .addField(FieldSpec.builder(cacheType, SPECIALIZED_DESERIALIZERS_FIELD_NAME, Modifier.PRIVATE, Modifier.FINAL).build())
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PRIVATE)
+                        .addParameter(JavaType.class, VALUE_TYPE_FIELD_NAME)
+                        .addParameter(cacheType, SPECIALIZED_DESERIALIZERS_FIELD_NAME)
+                        .addStatement("super($L)", createInterfaceClass(typeElement))
+                        .addStatement("this.$L = $L", VALUE_TYPE_FIELD_NAME, VALUE_TYPE_FIELD_NAME)
+                        .addStatement("this.$L = $L", SPECIALIZED_DESERIALIZERS_FIELD_NAME, SPECIALIZED_DESERIALIZERS_FIELD_NAME)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("createContextual")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(ParameterizedTypeName.get(ClassName.get(JsonDeserializer.class), WildcardTypeName.subtypeOf(Object.class)))
+                        .addParameter(DeserializationContext.class, DESERIALIZATION_CONTEXT_PARAMETER_NAME)
+                        .addParameter(BeanProperty.class, "property")
+                        .addException(JsonMappingException.class)
+                        .addStatement("$T contextualType = $L.getContextualType()", JavaType.class, DESERIALIZATION_CONTEXT_PARAMETER_NAME)
+                        .beginControlFlow("if (this.$L != null || contextualType == null || !contextualType.hasRawClass(handledType()) || contextualType.getBindings().isEmpty())",
+                                VALUE_TYPE_FIELD_NAME)
+                        .addStatement("return this")
+                        .endControlFlow()
+                        .addStatement("$T deserializer = this.$L.get(contextualType)", deserializerClassName, SPECIALIZED_DESERIALIZERS_FIELD_NAME)
+                        .beginControlFlow("if (deserializer == null)")
+                        .addStatement("deserializer = new $T(contextualType, this.$L)", deserializerClassName, SPECIALIZED_DESERIALIZERS_FIELD_NAME)
+                        .addStatement("deserializer.resolve($L)", DESERIALIZATION_CONTEXT_PARAMETER_NAME)
+                        .addStatement("$T existing = this.$L.putIfAbsent(contextualType, deserializer)", deserializerClassName, SPECIALIZED_DESERIALIZERS_FIELD_NAME)
+                        .beginControlFlow("if (existing != null)")
+                        .addStatement("deserializer = existing")
+                        .endControlFlow()
+                        .endControlFlow()
+                        .addStatement("return deserializer")
+                        .build());
+    }
+
+    /**
+     * @return true if the deserializer resolves any property from a type variable of the interface
+     */
+    private boolean isParameterized(TypeElement typeElement) {
+        return typeElement.getAnnotation(AutoJackson.class).streaming()
+                && this.methodDetailLoader.loadMethodDetails(typeElement).stream()
+                .anyMatch(methodDetail -> isParameterizedProperty(typeElement, methodDetail));
+    }
+
+    /**
+     * @return true if the property has a resolved type or deserializer which depends on a type variable of the interface
+     */
+    private boolean isParameterizedProperty(TypeElement typeElement, MethodDetail methodDetail) {
+        TypeMirror returnType = methodDetail.getReturnType();
+        if (!this.processorUtil.isLazy(typeElement, returnType) && (isLinkedProperty(methodDetail) || propertyParseMethod(methodDetail).isPresent())) {
+            return false;
+        }
+        return containsTypeVariable(typeElement, genericReturnType(typeElement, methodDetail));
+    }
+
+    /**
+     * The {@link MethodDetailLoader} swaps a type variable of the interface itself for its bound, so
+     * for those we go back to the return type of the method.
+     *
+     * @return The return type of the property, still holding any type variable of the interface
+     */
+    private TypeMirror genericReturnType(TypeElement typeElement, MethodDetail methodDetail) {
+        TypeMirror methodReturnType = methodDetail.getElement().getReturnType();
+        return typeVariableIndex(typeElement, methodReturnType) >= 0 ? methodReturnType : methodDetail.getReturnType();
+    }
+
+    /**
+     * @return The index of the type variable within the type parameters of the interface, or -1 if the type is not one of them
+     */
+    private int typeVariableIndex(TypeElement typeElement, TypeMirror type) {
+        if (type.getKind() != TypeKind.TYPEVAR) {
+            return -1;
+        }
+        return typeElement.getTypeParameters().indexOf(((TypeVariable) type).asElement());
+    }
+
+    /**
+     * @return true if the type is, or is built from, a type variable of the interface
+     */
+    private boolean containsTypeVariable(TypeElement typeElement, TypeMirror type) {
+        switch (type.getKind()) {
+            case TYPEVAR:
+                return typeVariableIndex(typeElement, type) >= 0;
+            case ARRAY:
+                return containsTypeVariable(typeElement, ((ArrayType) type).getComponentType());
+            case DECLARED:
+                return ((DeclaredType) type).getTypeArguments().stream().anyMatch(argument -> containsTypeVariable(typeElement, argument));
+            case WILDCARD:
+                TypeMirror extendsBound = ((WildcardType) type).getExtendsBound();
+                return extendsBound != null && containsTypeVariable(typeElement, extendsBound);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Creates the java type of a property for the resolve method. A property relying on a type variable
+     * of the interface uses the bound of the variable, unless the deserializer was resolved for a
+     * parameterization of the interface, for example
+     * <pre>
+     * {@code this.valueType == null ? typeFactory.constructType(Number.class) : this.valueType.containedTypeOrUnknown(0)}
+     * </pre>
+     */
+    private CodeBlock createPropertyJavaType(TypeElement typeElement, MethodDetail methodDetail) {
+        CodeBlock javaType = this.processorUtil.createJavaType(methodDetail.getReturnType(), "typeFactory");
+        if (!isParameterizedProperty(typeElement, methodDetail)) {
+            return javaType;
+        }
+        return CodeBlock.of("this.$L == null ? $L : $L", VALUE_TYPE_FIELD_NAME, javaType,
+                createParameterizedJavaType(typeElement, genericReturnType(typeElement, methodDetail)));
+    }
+
+    /**
+     * Creates the java type of the given type, taking each type variable of the interface from the
+     * parameterization the deserializer was resolved for. {@link Optional}s are created as reference
+     * types, matching what the type factory would create for them.
+     */
+    private CodeBlock createParameterizedJavaType(TypeElement typeElement, TypeMirror type) {
+        if (type.getKind() == TypeKind.WILDCARD) {
+            TypeMirror extendsBound = ((WildcardType) type).getExtendsBound();
+            return extendsBound == null
+                    ? CodeBlock.of("typeFactory.constructType($T.class)", Object.class)
+                    : createParameterizedJavaType(typeElement, extendsBound);
+        }
+        if (!containsTypeVariable(typeElement, type)) {
+            return this.processorUtil.createJavaType(type, "typeFactory");
+        }
+        switch (type.getKind()) {
+            case TYPEVAR:
+                return CodeBlock.of("this.$L.containedTypeOrUnknown($L)", VALUE_TYPE_FIELD_NAME, typeVariableIndex(typeElement, type));
+            case ARRAY:
+                return CodeBlock.of("typeFactory.constructArrayType($L)",
+                        createParameterizedJavaType(typeElement, ((ArrayType) type).getComponentType()));
+            default:
+                CodeBlock.Builder typeArguments = CodeBlock.builder();
+                for (TypeMirror argument : ((DeclaredType) type).getTypeArguments()) {
+                    typeArguments.add(", $L", createParameterizedJavaType(typeElement, argument));
+                }
+                String method = this.processorUtil.isOptional(type) ? "constructReferenceType" : "constructParametricType";
+                return CodeBlock.of("typeFactory.$L($T.class$L)", method, this.typeUtils.erasure(type), typeArguments.build());
+        }
+    }
+
+    /**
+     * Adds the method creating the document the setup class warms up the interface with. Every
+     * property is given a minimal valid value of its type, such as {@code 0}, {@code ""}, the first
+     * enum constant or a single element, so the document reads back even with features such as
+     * {@code FAIL_ON_NULL_FOR_PRIMITIVES} turned on. Properties made up of other interfaces are
+     * given the documents of those, so the warm up reaches the deserializers of the whole model.
+     */
+    private void addWarmUpJson(TypeElement typeElement, TypeSpec.Builder deserializationClassBuilder) {
+        WarmUpJson warmUpJson = new WarmUpJson();
+        warmUpJson.append("{");
+        String separator = "";
+        for (MethodDetail methodDetail : this.methodDetailLoader.loadMethodDetails(typeElement)) {
+            warmUpJson.append(separator + "\"" + escapeJson(this.processorUtil.createMemberVariableName(methodDetail.getElement())) + "\":");
+            appendWarmUpValue(warmUpJson, methodDetail.getReturnType());
+            separator = ",";
+        }
+        warmUpJson.append("}");
+
+        deserializationClassBuilder.addMethod(MethodSpec.methodBuilder(WARM_UP_JSON_METHOD_NAME)
+                .addJavadoc("@return A document holding every property, used to warm up reading and writing the interface\n")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(String.class)
+                .addParameter(WarmUpDocuments.class, WARM_UP_DOCUMENTS_PARAMETER_NAME)
+                .addStatement("return $L", warmUpJson.build())
+                .build());
+    }
+
+    /**
+     * Appends a minimal valid value of the type. A type variable takes the value of the erasure of
+     * its bound, and types with no obvious value, such as a class Jackson binds as a bean, are
+     * given {@code null}.
+     */
+    private void appendWarmUpValue(WarmUpJson warmUpJson, TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                warmUpJson.append("false");
+                break;
+            case CHAR:
+                warmUpJson.append("\"a\"");
+                break;
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                warmUpJson.append("0");
+                break;
+            case ARRAY:
+                TypeMirror componentType = ((ArrayType) type).getComponentType();
+                if (componentType.getKind() == TypeKind.BYTE || componentType.getKind() == TypeKind.CHAR) {
+                    // read from a base64 encoded string, and a string
+                    warmUpJson.append("\"\"");
+                } else {
+                    warmUpJson.append("[");
+                    appendWarmUpValue(warmUpJson, componentType);
+                    warmUpJson.append("]");
+                }
+                break;
+            case TYPEVAR:
+                appendWarmUpValue(warmUpJson, this.typeUtils.erasure(type));
+                break;
+            case WILDCARD:
+                TypeMirror extendsBound = ((WildcardType) type).getExtendsBound();
+                if (extendsBound == null) {
+                    warmUpJson.append("null");
+                } else {
+                    appendWarmUpValue(warmUpJson, extendsBound);
+                }
+                break;
+            case DECLARED:
+                appendDeclaredWarmUpValue(warmUpJson, (DeclaredType) type);
+                break;
+            default:
+                warmUpJson.append("null");
+        }
+    }
+
+    private void appendDeclaredWarmUpValue(WarmUpJson warmUpJson, DeclaredType type) {
+        TypeElement element = (TypeElement) type.asElement();
+        TypeMirror erasure = this.typeUtils.erasure(type);
+        List<? extends TypeMirror> typeArguments = type.getTypeArguments();
+
+        if (element.getAnnotation(AutoJackson.class) != null) {
+            warmUpJson.appendDocument(TypeName.get(erasure));
+        } else if (this.processorUtil.isOptional(type)) {
+            if (typeArguments.isEmpty()) {
+                warmUpJson.append("null");
+            } else {
+                appendWarmUpValue(warmUpJson, typeArguments.get(0));
+            }
+        } else if (element.getKind() == ElementKind.ENUM) {
+            Optional<? extends Element> firstConstant = element.getEnclosedElements().stream()
+                    .filter(enclosedElement -> enclosedElement.getKind() == ElementKind.ENUM_CONSTANT)
+                    .findFirst();
+            warmUpJson.append(firstConstant
+                    .map(constant -> "\"" + escapeJson(this.processorUtil.loadEnumValueName(constant)) + "\"")
+                    .orElse("null"));
+        } else if (isAssignable(erasure, CharSequence.class)) {
+            warmUpJson.append("\"\"");
+        } else if (isAssignable(erasure, Boolean.class)) {
+            warmUpJson.append("false");
+        } else if (isAssignable(erasure, Character.class)) {
+            warmUpJson.append("\"a\"");
+        } else if (isAssignable(erasure, UUID.class)) {
+            warmUpJson.append("\"" + new UUID(0, 0) + "\"");
+        } else if (isAssignable(erasure, Number.class) || isAssignable(erasure, Date.class)
+                || isAssignable(erasure, Calendar.class) || isAssignable(erasure, Instant.class)) {
+            // the dates are read from milliseconds, or seconds, since the epoch
+            warmUpJson.append("0");
+        } else if (isAssignable(erasure, Collection.class)) {
+            warmUpJson.append("[");
+            if (typeArguments.isEmpty()) {
+                warmUpJson.append("null");
+            } else {
+                appendWarmUpValue(warmUpJson, typeArguments.get(0));
+            }
+            warmUpJson.append("]");
+        } else if (isAssignable(erasure, Map.class)) {
+            if (typeArguments.isEmpty()) {
+                warmUpJson.append("{\"a\":null}");
+            } else if (isAssignable(this.typeUtils.erasure(typeArguments.get(0)), CharSequence.class)) {
+                warmUpJson.append("{\"a\":");
+                appendWarmUpValue(warmUpJson, typeArguments.get(1));
+                warmUpJson.append("}");
+            } else {
+                // keys of any other type are left out, rather than guessing at how they are read
+                warmUpJson.append("{}");
+            }
+        } else {
+            warmUpJson.append("null");
+        }
+    }
+
+    /**
+     * @return true if the erased type can be assigned to the erasure of the class
+     */
+    private boolean isAssignable(TypeMirror erasure, Class<?> clazz) {
+        return this.typeUtils.isAssignable(erasure, this.typeUtils.erasure(this.processorUtil.getType(clazz)));
+    }
+
+    /**
+     * @return The property name, escaped to sit inside a JSON string
+     */
+    private static String escapeJson(String name) {
+        return name.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    /**
+     * Adds the encoded names of each property, in the same order the serializer writes them, along
+     * with the methods used to move from one property to the next. When the properties arrive in
+     * that order {@link JsonParser#nextFieldName(com.fasterxml.jackson.core.SerializableString)}
+     * lets a parser reading bytes compare the next name against the precomputed UTF-8 bytes, without
+     * creating the name as a {@link String}. Anything out of order falls back to a switch on the name.
+     */
+    private void addFieldMatching(TypeElement typeElement, TypeSpec.Builder deserializationClassBuilder) {
+        Set<MethodDetail> methods = this.methodDetailLoader.loadMethodDetails(typeElement);
+
+        CodeBlock.Builder fieldNames = CodeBlock.builder();
+        MethodSpec.Builder fieldIndexMethodBuilder = MethodSpec.methodBuilder(FIELD_INDEX_METHOD_NAME)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(TypeName.INT)
+                .addParameter(String.class, "name")
+                .beginControlFlow("switch (name)");
+
+        int fieldIndex = 0;
+        for (MethodDetail methodDetail : methods) {
+            String memberVariableName = this.processorUtil.createMemberVariableName(methodDetail.getElement());
+            fieldNames.add(fieldIndex == 0 ? "new $T($S)" : ",\nnew $T($S)", SerializedString.class, memberVariableName);
+            fieldIndexMethodBuilder.addStatement("case $S: return $L", memberVariableName, fieldIndex++);
+        }
+
+        fieldIndexMethodBuilder.addStatement("default: return $L", UNKNOWN_FIELD)
+                .endControlFlow();
+
+        deserializationClassBuilder.addField(FieldSpec.builder(ArrayTypeName.of(SerializedString.class), FIELD_NAMES_FIELD_NAME,
+                Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("{\n$>$L$<\n}", fieldNames.build())
+                .build());
+
+        deserializationClassBuilder.addMethod(MethodSpec.methodBuilder(NEXT_FIELD_METHOD_NAME)
+                .addJavadoc("Moves to the next property, returning its index, $L for an unknown property, or $L at the end of the object\n",
+                        UNKNOWN_FIELD, END_OF_OBJECT)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(TypeName.INT)
+                .addParameter(JsonParser.class, JSON_PARSER_PARAMETER_NAME)
+                .addParameter(TypeName.INT, "expected")
+                .addException(IOException.class)
+                .beginControlFlow("if (expected >= $L.length)", FIELD_NAMES_FIELD_NAME)
+                .addStatement("$L.nextToken()", JSON_PARSER_PARAMETER_NAME)
+                .nextControlFlow("else if ($L.nextFieldName($L[expected]))", JSON_PARSER_PARAMETER_NAME, FIELD_NAMES_FIELD_NAME)
+                .addStatement("return expected")
+                .endControlFlow()
+                .addStatement("return $L($L)", CURRENT_FIELD_METHOD_NAME, JSON_PARSER_PARAMETER_NAME)
+                .build());
+
+        deserializationClassBuilder.addMethod(MethodSpec.methodBuilder(CURRENT_FIELD_METHOD_NAME)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(TypeName.INT)
+                .addParameter(JsonParser.class, JSON_PARSER_PARAMETER_NAME)
+                .addException(IOException.class)
+                .beginControlFlow("if ($L.getCurrentToken() != $T.$L)", JSON_PARSER_PARAMETER_NAME, JsonToken.class, JsonToken.FIELD_NAME)
+                .addStatement("return $L", END_OF_OBJECT)
+                .endControlFlow()
+                .addStatement("return $L($L.getCurrentName())", FIELD_INDEX_METHOD_NAME, JSON_PARSER_PARAMETER_NAME)
+                .build());
+
+        deserializationClassBuilder.addMethod(fieldIndexMethodBuilder.build());
+    }
+
+    /**
+     * The original deserialization, reading the entire object into a tree and
+     * then converting that tree into our implementation class.
+     */
+    private MethodSpec implementTreeDeserializeMethod(TypeElement typeElement, Builder deserializeMethodBuilder) {
         Name className = typeElement.getSimpleName();
 
         return deserializeMethodBuilder.addStatement("$T codec = $L.getCodec()", ObjectCodec.class, JSON_PARSER_PARAMETER_NAME)
@@ -33,4 +713,267 @@ public class SimpleDeserializerCreator extends DeserializerCreator {
                 .build();
     }
 
+    /**
+     * Creates the code to read the value of a property the parser is currently pointing at.
+     * Simple values are parsed directly, while everything else goes through the deserializer
+     * resolved for that property.
+     */
+    private CodeBlock createReadValue(TypeElement typeElement, MethodDetail methodDetail) {
+        TypeMirror returnType = methodDetail.getReturnType();
+        String memberVariableName = this.processorUtil.createMemberVariableName(methodDetail.getElement());
+        if (this.processorUtil.isLazy(typeElement, returnType)) {
+            return CodeBlock.of("$T.capture($L, $L, this.$L)", LazyValue.class, JSON_PARSER_PARAMETER_NAME,
+                    DESERIALIZATION_CONTEXT_PARAMETER_NAME, memberVariableName + DESERIALIZER_FIELD_SUFFIX);
+        }
+
+        Optional<String> parseMethod = propertyParseMethod(methodDetail);
+        if (parseMethod.isPresent()) {
+            if (returnType.getKind().isPrimitive()) {
+                return CodeBlock.of("$L($L, $L)", parseMethod.get(), JSON_PARSER_PARAMETER_NAME, DESERIALIZATION_CONTEXT_PARAMETER_NAME);
+            } else {
+                return CodeBlock.of("$L == $T.$L ? null : $L($L, $L)", TOKEN_VARIABLE_NAME, JsonToken.class, JsonToken.VALUE_NULL,
+                        parseMethod.get(), JSON_PARSER_PARAMETER_NAME, DESERIALIZATION_CONTEXT_PARAMETER_NAME);
+            }
+        }
+
+        if (isLinkedProperty(methodDetail)) {
+            return CodeBlock.of("$L($L, $L)", linkedReadMethodName(memberVariableName), JSON_PARSER_PARAMETER_NAME, DESERIALIZATION_CONTEXT_PARAMETER_NAME);
+        }
+
+        String deserializerField = memberVariableName + DESERIALIZER_FIELD_SUFFIX;
+        return CodeBlock.of("($T) ($L == $T.$L ? this.$L.getNullValue($L) : this.$L.deserialize($L, $L))",
+                this.processorUtil.createLocalTypeName(returnType).box(), TOKEN_VARIABLE_NAME, JsonToken.class, JsonToken.VALUE_NULL,
+                deserializerField, DESERIALIZATION_CONTEXT_PARAMETER_NAME,
+                deserializerField, JSON_PARSER_PARAMETER_NAME, DESERIALIZATION_CONTEXT_PARAMETER_NAME);
+    }
+
+    /**
+     * Creates the method reading a property made up of other {@link AutoJackson} interfaces. Rather than
+     * going through the collection and {@link Optional} deserializers Jackson would find for the property,
+     * the method walks any arrays itself and hands each object straight to the deserializer of the
+     * linked interface.
+     *
+     * @param returnType               The type of the property
+     * @param memberVariableName       The name of the property
+     * @param linkedDeserializerFields The fields holding the deserializers of each linked interface, added to as needed
+     * @return The method reading the property
+     */
+    private MethodSpec createLinkedReadMethod(TypeMirror returnType, String memberVariableName, Map<TypeElement, String> linkedDeserializerFields) {
+        TypeName localTypeName = this.processorUtil.createLocalTypeName(returnType);
+        CodeBlock.Builder readCode = CodeBlock.builder()
+                .addStatement("$T $L", localTypeName, VALUE_VARIABLE_SUFFIX.toLowerCase());
+        addLinkedRead(readCode, returnType, VALUE_VARIABLE_SUFFIX.toLowerCase(), 0, linkedDeserializerFields);
+
+        return MethodSpec.methodBuilder(linkedReadMethodName(memberVariableName))
+                .addAnnotation(AnnotationSpec.builder(SuppressWarnings.class)
+                        .addMember("value", "$S", "unchecked")
+                        .build())
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(JsonParser.class, JSON_PARSER_PARAMETER_NAME)
+                .addParameter(DeserializationContext.class, DESERIALIZATION_CONTEXT_PARAMETER_NAME)
+                .addException(IOException.class)
+                .returns(localTypeName)
+                .addCode(readCode.build())
+                .addStatement("return $L", VALUE_VARIABLE_SUFFIX.toLowerCase())
+                .build();
+    }
+
+    /**
+     * Adds the code reading the value the parser is pointing at into the given variable, nesting
+     * as needed for {@link Optional}s, {@link List}s and arrays.
+     */
+    private void addLinkedRead(CodeBlock.Builder code, TypeMirror type, String variable, int depth, Map<TypeElement, String> linkedDeserializerFields) {
+        CodeBlock currentToken = CodeBlock.of("$L.getCurrentToken()", JSON_PARSER_PARAMETER_NAME);
+        TypeName localTypeName = this.processorUtil.createLocalTypeName(type);
+
+        Optional<TypeElement> linkedElement = linkedElement(type);
+        if (linkedElement.isPresent()) {
+            String fieldName = linkedDeserializerFields.computeIfAbsent(linkedElement.get(),
+                    element -> linkedDeserializerFieldName(element, linkedDeserializerFields.values()));
+            code.addStatement("$L = $L == $T.$L ? null : ($T) this.$L.deserialize($L, $L)", variable, currentToken, JsonToken.class, JsonToken.VALUE_NULL,
+                    localTypeName, fieldName, JSON_PARSER_PARAMETER_NAME, DESERIALIZATION_CONTEXT_PARAMETER_NAME);
+            return;
+        }
+
+        TypeMirror innerType = linkedInnerType(type).get();
+        TypeName innerTypeName = this.processorUtil.createLocalTypeName(innerType);
+        String innerVariable = "inner" + depth;
+
+        if (this.processorUtil.isOptional(type)) {
+            code.beginControlFlow("if ($L == $T.$L)", currentToken, JsonToken.class, JsonToken.VALUE_NULL)
+                    .addStatement("$L = $T.empty()", variable, Optional.class)
+                    .nextControlFlow("else")
+                    .addStatement("$T $L", innerTypeName, innerVariable);
+            addLinkedRead(code, innerType, innerVariable, depth + 1, linkedDeserializerFields);
+            code.addStatement("$L = $T.ofNullable($L)", variable, Optional.class, innerVariable)
+                    .endControlFlow();
+            return;
+        }
+
+        String listVariable = "list" + depth;
+        TypeName rawTypeName = TypeName.get(this.typeUtils.erasure(type));
+        code.beginControlFlow("if ($L == $T.$L)", currentToken, JsonToken.class, JsonToken.VALUE_NULL)
+                .addStatement("$L = null", variable)
+                .nextControlFlow("else if ($L != $T.$L)", currentToken, JsonToken.class, JsonToken.START_ARRAY)
+                .addStatement("$L = ($T) $L.handleUnexpectedToken($T.class, $L)", variable, localTypeName,
+                        DESERIALIZATION_CONTEXT_PARAMETER_NAME, rawTypeName, JSON_PARSER_PARAMETER_NAME)
+                .nextControlFlow("else")
+                .addStatement("$T<$T> $L = new $T<>()", List.class, innerTypeName, listVariable, ArrayList.class)
+                .beginControlFlow("while ($L.nextToken() != $T.$L)", JSON_PARSER_PARAMETER_NAME, JsonToken.class, JsonToken.END_ARRAY)
+                .addStatement("$T $L", innerTypeName, innerVariable);
+        addLinkedRead(code, innerType, innerVariable, depth + 1, linkedDeserializerFields);
+        code.addStatement("$L.add($L)", listVariable, innerVariable)
+                .endControlFlow();
+        if (type.getKind() == TypeKind.ARRAY) {
+            TypeName componentTypeName = TypeName.get(this.typeUtils.erasure(innerType));
+            code.addStatement("$L = $L.toArray(new $T[$L.size()])", variable, listVariable, componentTypeName, listVariable);
+        } else {
+            code.addStatement("$L = $L", variable, listVariable);
+        }
+        code.endControlFlow();
+    }
+
+    /**
+     * A property is read as linked unless its accessor has Jackson annotations, which only the
+     * deserializer Jackson finds for the property knows how to apply
+     */
+    private boolean isLinkedProperty(MethodDetail methodDetail) {
+        return !this.processorUtil.hasJacksonAnnotations(methodDetail.getElement()) && isLinked(methodDetail.getReturnType());
+    }
+
+    /**
+     * A type is linked if it is an {@link AutoJackson} interface, or an {@link Optional},
+     * {@link List} or array wrapping a linked type.
+     */
+    private boolean isLinked(TypeMirror type) {
+        if (linkedElement(type).isPresent()) {
+            return true;
+        }
+        return linkedInnerType(type).map(this::isLinked).orElse(false);
+    }
+
+    /**
+     * @return The interface of the type, if the type is an {@link AutoJackson} interface
+     */
+    private Optional<TypeElement> linkedElement(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return Optional.empty();
+        }
+        DeclaredType declaredType = (DeclaredType) type;
+        TypeElement element = (TypeElement) declaredType.asElement();
+        // a parameterization of an interface is left to Jackson, so the deserializer is specialized for it
+        return element.getAnnotation(AutoJackson.class) != null && declaredType.getTypeArguments().isEmpty()
+                ? Optional.of(element)
+                : Optional.empty();
+    }
+
+    /**
+     * @return The type wrapped by an {@link Optional}, {@link List} or array type
+     */
+    private Optional<TypeMirror> linkedInnerType(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return Optional.of(((ArrayType) type).getComponentType());
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            return Optional.empty();
+        }
+        DeclaredType declaredType = (DeclaredType) type;
+        List<? extends TypeMirror> typeArguments = declaredType.getTypeArguments();
+        String qualifiedName = ((TypeElement) declaredType.asElement()).getQualifiedName().toString();
+        boolean wrapper = qualifiedName.equals(Optional.class.getCanonicalName()) || qualifiedName.equals(List.class.getCanonicalName());
+        if (!wrapper || typeArguments.size() != 1 || typeArguments.get(0).getKind() != TypeKind.DECLARED && typeArguments.get(0).getKind() != TypeKind.ARRAY) {
+            return Optional.empty();
+        }
+        return Optional.of(typeArguments.get(0));
+    }
+
+    private String linkedReadMethodName(String memberVariableName) {
+        return LINKED_READ_METHOD_PREFIX + CaseFormat.LOWER_CAMEL.to(CaseFormat.UPPER_CAMEL, memberVariableName);
+    }
+
+    /**
+     * Names the field after the simple name of the interface, numbering the name when a linked
+     * interface from another package has already taken it, such as {@code a.Hat} and {@code b.Hat}
+     */
+    private String linkedDeserializerFieldName(TypeElement linkedElement, Collection<String> usedNames) {
+        String baseName = CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_CAMEL, linkedElement.getSimpleName().toString());
+        String name = baseName + LINKED_DESERIALIZER_FIELD_SUFFIX;
+        for (int suffix = 2; usedNames.contains(name); suffix++) {
+            name = baseName + suffix + LINKED_DESERIALIZER_FIELD_SUFFIX;
+        }
+        return name;
+    }
+
+    /**
+     * @return The name of the parse method which can read the property directly, unless its accessor has Jackson annotations
+     */
+    private Optional<String> propertyParseMethod(MethodDetail methodDetail) {
+        if (this.processorUtil.hasJacksonAnnotations(methodDetail.getElement())) {
+            return Optional.empty();
+        }
+        return parseMethod(methodDetail.getReturnType());
+    }
+
+    /**
+     * @return The name of the parse method which can read the given type directly, if there is one
+     */
+    private Optional<String> parseMethod(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED && !type.getKind().isPrimitive()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(PARSE_METHODS.get(TypeName.get(type)));
+    }
+
+    /**
+     * @return The value a local variable of the given type starts out as
+     */
+    private String defaultValue(TypeName typeName) {
+        if (typeName == TypeName.BOOLEAN) {
+            return "false";
+        } else if (typeName.isPrimitive()) {
+            return "0";
+        } else {
+            return "null";
+        }
+    }
+
+    /**
+     * Builds the expression creating a warm up document, joining the JSON known while processing
+     * with the documents of the interfaces it holds, which are only known once warming up
+     */
+    private static class WarmUpJson {
+
+        private final CodeBlock.Builder expression = CodeBlock.builder();
+        private final StringBuilder json = new StringBuilder();
+        private boolean empty = true;
+
+        private void append(String json) {
+            this.json.append(json);
+        }
+
+        private void appendDocument(TypeName interfaceType) {
+            appendJson();
+            appendExpression(CodeBlock.of("$L.of($T.class)", WARM_UP_DOCUMENTS_PARAMETER_NAME, interfaceType));
+        }
+
+        private CodeBlock build() {
+            appendJson();
+            return this.expression.build();
+        }
+
+        private void appendJson() {
+            if (this.json.length() > 0) {
+                appendExpression(CodeBlock.of("$S", this.json.toString()));
+                this.json.setLength(0);
+            }
+        }
+
+        private void appendExpression(CodeBlock codeBlock) {
+            if (!this.empty) {
+                this.expression.add(" + ");
+            }
+            this.expression.add(codeBlock);
+            this.empty = false;
+        }
+    }
 }
@@ -0,0 +1,172 @@
+package com.github.peckb1.processor.util;
+
+import com.squareup.javapoet.JavaFile;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Writes the classes created by the processor, keeping a manifest of the SHA-256 hash of
+ * every source written, and when that source last changed.
+ * <p>
+ * Every generated source has to go through the {@link Filer} to be compiled, but when a source
+ * matches the hash from the previous build its file is given back the time it last changed, even
+ * if the build tool removed the generated sources in between, so tools watching the generated
+ * sources only see the classes which actually changed.
+ * <p>
+ * The manifest is only kept in the directory given by the {@value #MANIFEST_OPTION} processor
+ * option, such as {@code ${project.build.directory}/autojackson}, and never with the compiled
+ * classes where it would end up inside of the jar. Without the option no manifest is kept, and
+ * every source is simply written.
+ */
+public final class SourceWriter {
+
+    public static final String MANIFEST_OPTION = "autojackson.manifest";
+
+    private static final String MANIFEST_SEPARATOR = "=";
+    private static final String TIME_SEPARATOR = ",";
+
+    private final Filer filer;
+    private final String manifestDirectory;
+    private final String manifestName;
+    private final Map<String, ManifestEntry> entries = new TreeMap<>();
+
+    private boolean loaded;
+    private Path manifest;
+    private Map<String, ManifestEntry> previousEntries;
+
+    /**
+     * @param filer             The filer to write the sources with
+     * @param manifestDirectory The directory to keep the manifest in, or null to keep no manifest
+     * @param manifestName      The name of the manifest, which should be unique to each processor
+     */
+    public SourceWriter(Filer filer, String manifestDirectory, String manifestName) {
+        this.filer = filer;
+        this.manifestDirectory = manifestDirectory;
+        this.manifestName = manifestName;
+    }
+
+    /**
+     * @param javaFile The source to write
+     * @throws IOException If the source could not be written
+     */
+    public void write(JavaFile javaFile) throws IOException {
+        String className = javaFile.packageName.isEmpty()
+                ? javaFile.typeSpec.name
+                : javaFile.packageName + "." + javaFile.typeSpec.name;
+        String source = javaFile.toString();
+        String hash = hash(source);
+        ManifestEntry previousEntry = previousEntries().get(className);
+
+        List<Element> originatingElements = javaFile.typeSpec.originatingElements;
+        JavaFileObject sourceFile = this.filer.createSourceFile(className, originatingElements.toArray(new Element[originatingElements.size()]));
+        try (Writer writer = sourceFile.openWriter()) {
+            writer.write(source);
+        }
+
+        if (previousEntry != null && previousEntry.hash.equals(hash) && "file".equals(sourceFile.toUri().getScheme())) {
+            Files.setLastModifiedTime(Paths.get(sourceFile.toUri()), FileTime.fromMillis(previousEntry.lastModified));
+            this.entries.put(className, previousEntry);
+        } else {
+            this.entries.put(className, new ManifestEntry(hash, sourceFile.getLastModified()));
+        }
+    }
+
+    /**
+     * Writes the manifest of every source written, along with those from the previous build
+     * which were not written again, such as after an incremental build.
+     *
+     * @throws IOException If the manifest could not be written
+     */
+    public void writeManifest() throws IOException {
+        Map<String, ManifestEntry> previousEntries = previousEntries();
+        if (this.manifest == null || previousEntries.isEmpty() && this.entries.isEmpty()) {
+            return;
+        }
+
+        Map<String, ManifestEntry> manifestEntries = new TreeMap<>(previousEntries);
+        manifestEntries.putAll(this.entries);
+
+        Files.createDirectories(this.manifest.getParent());
+        Files.write(this.manifest, manifestEntries.entrySet().stream()
+                .map(entry -> entry.getKey() + MANIFEST_SEPARATOR + entry.getValue().hash + TIME_SEPARATOR + entry.getValue().lastModified)
+                .collect(Collectors.toList()), UTF_8);
+    }
+
+    /**
+     * @return The entries from the previous build, loaded the first time they are needed
+     */
+    private Map<String, ManifestEntry> previousEntries() throws IOException {
+        if (this.loaded) {
+            return this.previousEntries;
+        }
+        this.loaded = true;
+        this.previousEntries = new TreeMap<>();
+        this.manifest = findManifest();
+        if (this.manifest != null && Files.exists(this.manifest)) {
+            for (String line : Files.readAllLines(this.manifest, UTF_8)) {
+                int separator = line.indexOf(MANIFEST_SEPARATOR);
+                int timeSeparator = line.lastIndexOf(TIME_SEPARATOR);
+                if (separator > 0 && timeSeparator > separator) {
+                    try {
+                        this.previousEntries.put(line.substring(0, separator), new ManifestEntry(
+                                line.substring(separator + 1, timeSeparator), Long.parseLong(line.substring(timeSeparator + 1))));
+                    } catch (NumberFormatException e) {
+                        // an unreadable entry only means its source is treated as changed
+                    }
+                }
+            }
+        }
+        return this.previousEntries;
+    }
+
+    /**
+     * @return Where the manifest lives, or null if no manifest is kept
+     */
+    private Path findManifest() {
+        return this.manifestDirectory == null || this.manifestDirectory.isEmpty()
+                ? null
+                : Paths.get(this.manifestDirectory, this.manifestName);
+    }
+
+    private static String hash(String source) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is always available", e);
+        }
+    }
+
+    /**
+     * The hash of a generated source, and the time that source last changed
+     */
+    private static final class ManifestEntry {
+        private final String hash;
+        private final long lastModified;
+
+        ManifestEntry(String hash, long lastModified) {
+            this.hash = hash;
+            this.lastModified = lastModified;
+        }
+    }
+}
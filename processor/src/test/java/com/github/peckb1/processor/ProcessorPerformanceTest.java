@@ -0,0 +1,164 @@
+package com.github.peckb1.processor;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.peckb1.processor.util.PhaseTimer;
+import org.junit.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the processor in process over made up models of {@link AutoJackson} interfaces,
+ * reporting the wall time, allocation and time spent in each creator of the processor.
+ * <p>
+ * As a test it guards against the processor growing faster than the size of the model.
+ * It is left out of the default build, and runs with the {@code performance} profile.
+ * Run on its own to measure a model of a given shape:
+ * <pre>
+ * ProcessorPerformanceTest [interfaces] [depth] [generic] [hierarchies] [enum size]
+ * </pre>
+ */
+public class ProcessorPerformanceTest {
+
+    private static final Pattern PHASE_NOTE = Pattern.compile("AutoJackson phase (\\w+): ([\\d.]+) ms");
+    private static final List<String> PHASES = Arrays.asList("ImplementationCreator", "SerializerCreator",
+            "SimpleDeserializerCreator", "ComplexDeserializerCreator", "ReaderCreator", "SetupCreator", "RegistryCreator", "MetadataCreator");
+
+    public static void main(String[] args) throws Exception {
+        SyntheticModel model = new SyntheticModel(
+                args.length > 0 ? Integer.parseInt(args[0]) : 1000,
+                args.length > 1 ? Integer.parseInt(args[1]) : 3,
+                args.length > 2 && Boolean.parseBoolean(args[2]),
+                args.length > 3 ? Integer.parseInt(args[3]) : 50,
+                args.length > 4 ? Integer.parseInt(args[4]) : 5);
+        System.out.println(compile(model));
+    }
+
+    @Test
+    public void testProcessingGrowsLinearly() throws Exception {
+        // let the compiler and processor warm up before measuring anything
+        compile(new SyntheticModel(10, 2, true, 1, 3));
+
+        CompilationReport single = compile(new SyntheticModel(30, 3, true, 2, 4));
+        CompilationReport doubled = compile(new SyntheticModel(60, 3, true, 4, 4));
+
+        assertEquals(PHASES.stream().sorted().collect(Collectors.toList()),
+                doubled.phaseMillis.keySet().stream().sorted().collect(Collectors.toList()));
+
+        double growth = doubled.processorMillis() / single.processorMillis();
+        assertTrue(String.format("doubling the model grew processing by %.2fx%n%s%n%s", growth, single, doubled), growth < 4);
+    }
+
+    /**
+     * Compiles the model, including the classes the processor creates, failing on any error.
+     */
+    static CompilationReport compile(SyntheticModel model) throws IOException, URISyntaxException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Path output = Files.createTempDirectory("autojackson");
+
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT, UTF_8)) {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singleton(output.toFile()));
+            fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, Collections.singleton(output.toFile()));
+            fileManager.setLocation(StandardLocation.CLASS_PATH, Arrays.asList(
+                    location(AutoJackson.class), location(ObjectMapper.class), location(JsonParser.class), location(JsonProperty.class)));
+
+            List<String> options = Collections.singletonList("-A" + PhaseTimer.TIMINGS_OPTION + "=true");
+            CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null, model.sources());
+            task.setProcessors(Arrays.asList(new AutoJacksonProcessor(), new AutoJacksonSetupProcessor()));
+
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            boolean success = task.call();
+            long wallNanos = System.nanoTime() - start;
+            long allocated = allocatedBytes() - allocatedBefore;
+
+            Map<String, Double> phaseMillis = new LinkedHashMap<>();
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                Matcher matcher = PHASE_NOTE.matcher(diagnostic.getMessage(Locale.ROOT));
+                if (matcher.matches()) {
+                    phaseMillis.put(matcher.group(1), Double.parseDouble(matcher.group(2)));
+                }
+            }
+
+            assertTrue("compilation failed: " + diagnostics.getDiagnostics(), success);
+            return new CompilationReport(model.annotatedInterfaces(), wallNanos, allocated, phaseMillis);
+        } finally {
+            try (Stream<Path> paths = Files.walk(output)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    private static File location(Class<?> type) throws URISyntaxException {
+        return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    /**
+     * @return The bytes allocated by this thread, which is the one the compiler runs on, or zero if unknown
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    static final class CompilationReport {
+        private final int interfaces;
+        private final long wallNanos;
+        private final long allocatedBytes;
+        private final Map<String, Double> phaseMillis;
+
+        CompilationReport(int interfaces, long wallNanos, long allocatedBytes, Map<String, Double> phaseMillis) {
+            this.interfaces = interfaces;
+            this.wallNanos = wallNanos;
+            this.allocatedBytes = allocatedBytes;
+            this.phaseMillis = phaseMillis;
+        }
+
+        double processorMillis() {
+            return this.phaseMillis.values().stream().mapToDouble(Double::doubleValue).sum();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder report = new StringBuilder(String.format(Locale.ROOT,
+                    "%d interfaces: %.1f ms wall, %.1f MB allocated, %.1f ms in the processor",
+                    this.interfaces, this.wallNanos / 1_000_000.0, this.allocatedBytes / 1_048_576.0, processorMillis()));
+            this.phaseMillis.forEach((phase, millis) -> report.append(String.format(Locale.ROOT, "%n  %-28s %10.1f ms", phase, millis)));
+            return report.toString();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.github.peckb1.processor;
+
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the sources of a made up model of {@link AutoJackson} interfaces, used to see
+ * how the processor copes with large numbers of interfaces.
+ * <p>
+ * The model is made up of simple interfaces, each extending a chain of plain parent
+ * interfaces, and of hierarchies like {@code Fraggle<M>} where a generic root interface
+ * picks one of its child interfaces through an enumeration.
+ */
+final class SyntheticModel {
+
+    private static final String PACKAGE = "synthetic";
+
+    private final int interfaces;
+    private final int depth;
+    private final boolean generic;
+    private final int hierarchies;
+    private final int enumSize;
+
+    /**
+     * @param interfaces  The number of simple interfaces to create
+     * @param depth       The number of parent interfaces each simple interface extends, one inside the other
+     * @param generic     Whether the simple interfaces take a type parameter, like {@code Gobo<X>}
+     * @param hierarchies The number of root interfaces with an {@link AutoJackson.Type} to create
+     * @param enumSize    The number of child interfaces, and enumeration values, of each root interface
+     */
+    SyntheticModel(int interfaces, int depth, boolean generic, int hierarchies, int enumSize) {
+        this.interfaces = interfaces;
+        this.depth = depth;
+        this.generic = generic;
+        this.hierarchies = hierarchies;
+        this.enumSize = enumSize;
+    }
+
+    /**
+     * @return The number of interfaces annotated with {@link AutoJackson} in the model
+     */
+    int annotatedInterfaces() {
+        return this.interfaces + this.hierarchies * (1 + this.enumSize);
+    }
+
+    List<JavaFileObject> sources() {
+        List<JavaFileObject> sources = new ArrayList<>();
+        for (int i = 0; i < this.interfaces; i++) {
+            addSimpleInterface(sources, i);
+        }
+        for (int h = 0; h < this.hierarchies; h++) {
+            addHierarchy(sources, h);
+        }
+        return sources;
+    }
+
+    private void addSimpleInterface(List<JavaFileObject> sources, int i) {
+        String parent = null;
+        for (int d = 0; d < this.depth; d++) {
+            String name = "Model" + i + "Parent" + d;
+            sources.add(source(name, "public interface " + name + (parent == null ? "" : " extends " + parent) + " {\n" +
+                    "    String getParent" + d + "();\n" +
+                    "    java.util.Optional<String> getOptionalParent" + d + "();\n" +
+                    "}\n"));
+            parent = name;
+        }
+
+        String name = "Model" + i;
+        String typeParameter = this.generic ? "<X extends Number>" : "";
+        sources.add(source(name, "@com.github.peckb1.processor.AutoJackson\n" +
+                "public interface " + name + typeParameter + (parent == null ? "" : " extends " + parent) + " {\n" +
+                "    int getCount();\n" +
+                "    String getName();\n" +
+                "    java.util.Optional<String> getNickname();\n" +
+                "    java.util.List<Integer> getNumbers();\n" +
+                (i > 0 ? "    java.util.Optional<Model" + (i - 1) + "> getPrevious();\n" : "") +
+                (this.generic ? "    X getValue();\n" : "") +
+                "}\n"));
+    }
+
+    private void addHierarchy(List<JavaFileObject> sources, int h) {
+        String root = "Creature" + h;
+        String kind = "Kind" + h;
+
+        StringBuilder constants = new StringBuilder();
+        for (int e = 0; e < this.enumSize; e++) {
+            String child = root + "Child" + e;
+            constants.append(e == 0 ? "    " : ",\n    ").append("KIND_").append(e).append("(").append(child).append(".class)");
+            sources.add(source(child, "@com.github.peckb1.processor.AutoJackson\n" +
+                    "public interface " + child + " extends " + root + "<Integer> {\n" +
+                    "    int getChild" + e + "();\n" +
+                    "}\n"));
+        }
+
+        sources.add(source(kind, "public enum " + kind + " {\n" +
+                constants + ";\n\n" +
+                "    private final Class<? extends " + root + "> creatureClass;\n\n" +
+                "    " + kind + "(Class<? extends " + root + "> creatureClass) {\n" +
+                "        this.creatureClass = creatureClass;\n" +
+                "    }\n\n" +
+                "    @com.github.peckb1.processor.AutoJacksonTypeClass\n" +
+                "    public Class<? extends " + root + "> getCreatureClass() {\n" +
+                "        return this.creatureClass;\n" +
+                "    }\n" +
+                "}\n"));
+
+        sources.add(source(root, "@com.github.peckb1.processor.AutoJackson(type = @com.github.peckb1.processor.AutoJackson.Type(" + kind + ".class))\n" +
+                "public interface " + root + "<W extends Number> {\n" +
+                "    " + kind + " getKind();\n" +
+                "    W getWeight();\n" +
+                "    java.util.Optional<" + root + "> getFriend();\n" +
+                "}\n"));
+    }
+
+    private static JavaFileObject source(String simpleName, String body) {
+        String code = "package " + PACKAGE + ";\n\n" + body;
+        URI uri = URI.create("string:///" + PACKAGE + "/" + simpleName + JavaFileObject.Kind.SOURCE.extension);
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}